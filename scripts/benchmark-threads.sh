@@ -0,0 +1,151 @@
+#!/bin/bash
+
+# User Service Thread Mode Benchmark
+# Runs the same login storm against the service in platform-thread and virtual-thread mode
+# and compares throughput, latency, live threads and virtual-thread pinning.
+#
+# Requires: a built jar (./scripts/local.sh build), the usual local env (database, Redis,
+# RabbitMQ), an existing confirmed account for the login storm, and `hey`
+# (https://github.com/rakyll/hey) on the PATH.
+#
+# Usage: ./scripts/benchmark-threads.sh <email> <password> [requests] [concurrency]
+
+set -e  # Exit on any error
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Configuration
+JAR_PATH="target/user_service-0.0.1-SNAPSHOT.jar"
+PORT=8081
+BASE_URL="http://localhost:$PORT"
+RESULTS_DIR="target/benchmark"
+EMAIL="$1"
+PASSWORD="$2"
+REQUESTS=${3:-2000}
+CONCURRENCY=${4:-200}
+
+print_status() {
+    echo -e "${BLUE}[INFO]${NC} $1"
+}
+
+print_success() {
+    echo -e "${GREEN}[SUCCESS]${NC} $1"
+}
+
+print_warning() {
+    echo -e "${YELLOW}[WARNING]${NC} $1"
+}
+
+print_error() {
+    echo -e "${RED}[ERROR]${NC} $1"
+}
+
+check_prerequisites() {
+    if [ -z "$EMAIL" ] || [ -z "$PASSWORD" ]; then
+        print_error "Usage: $0 <email> <password> [requests] [concurrency]"
+        exit 1
+    fi
+    if ! command -v hey &> /dev/null; then
+        print_error "hey is not installed: go install github.com/rakyll/hey@latest"
+        exit 1
+    fi
+    if [ ! -f "$JAR_PATH" ]; then
+        print_error "$JAR_PATH not found. Build it first with ./scripts/local.sh build"
+        exit 1
+    fi
+    mkdir -p "$RESULTS_DIR"
+}
+
+# Reads a single statistic from the actuator metrics endpoint
+metric() {
+    local name=$1
+    local statistic=${2:-VALUE}
+    curl -s "$BASE_URL/actuator/metrics/$name" \
+        | grep -o "\"statistic\":\"$statistic\",\"value\":[0-9.E+-]*" \
+        | head -n 1 | sed 's/.*"value"://'
+}
+
+start_service() {
+    local virtual=$1
+    print_status "Starting service with VIRTUAL_THREADS_ENABLED=$virtual..."
+    # Rate limits and the login lockout would reject a single-account storm
+    VIRTUAL_THREADS_ENABLED=$virtual REQUEST_LIMITS_ENABLED=false \
+        java -Dserver.port=$PORT \
+        -Dsecurity.rate-limit.login.account-limit=1000000 \
+        -Dsecurity.rate-limit.login.ip-limit=1000000 \
+        -Dsecurity.rate-limit.login.local-burst=1000000 \
+        -Dsecurity.rate-limit.login.local-refill-per-second=1000000 \
+        -jar "$JAR_PATH" > "$RESULTS_DIR/service-$virtual.log" 2>&1 &
+    SERVICE_PID=$!
+
+    for _ in $(seq 1 60); do
+        if curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+            print_success "Service is up (PID $SERVICE_PID)"
+            return 0
+        fi
+        sleep 2
+    done
+    print_error "Service did not become healthy, see $RESULTS_DIR/service-$virtual.log"
+    kill "$SERVICE_PID" 2> /dev/null || true
+    exit 1
+}
+
+stop_service() {
+    kill "$SERVICE_PID" 2> /dev/null || true
+    wait "$SERVICE_PID" 2> /dev/null || true
+}
+
+run_mode() {
+    local mode=$1
+    local virtual=$2
+    local report="$RESULTS_DIR/hey-$mode.txt"
+
+    start_service "$virtual"
+
+    # Warm up the JIT and connection pools before measuring
+    hey -n 200 -c 20 -m POST -T application/json \
+        -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" \
+        "$BASE_URL/api/v1/auth/login" > /dev/null
+
+    print_status "Running $REQUESTS logins at concurrency $CONCURRENCY ($mode threads)..."
+    hey -n "$REQUESTS" -c "$CONCURRENCY" -m POST -T application/json \
+        -d "{\"email\":\"$EMAIL\",\"password\":\"$PASSWORD\"}" \
+        "$BASE_URL/api/v1/auth/login" > "$report"
+
+    local rps=$(grep "Requests/sec" "$report" | awk '{print $2}')
+    local p50=$(grep "50% in" "$report" | awk '{print $3}')
+    local p99=$(grep "99% in" "$report" | awk '{print $3}')
+    local errors=$(grep -E "^\s+\[(429|5[0-9][0-9])\]" "$report" | awk '{sum += $2} END {print sum + 0}')
+    local peak_threads=$(metric jvm.threads.peak)
+    local pinned=$(metric jvm.threads.virtual.pinned COUNT)
+
+    RESULTS+=("$(printf "%-10s %10s %10s %10s %8s %13s %8s" \
+        "$mode" "$rps" "$p50" "$p99" "$errors" "${peak_threads:-n/a}" "${pinned:-0}")")
+
+    stop_service
+}
+
+main() {
+    check_prerequisites
+    RESULTS=()
+
+    run_mode platform false
+    run_mode virtual true
+
+    echo ""
+    printf "%-10s %10s %10s %10s %8s %13s %8s\n" \
+        "mode" "req/s" "p50 (s)" "p99 (s)" "shed" "peak threads" "pinned"
+    for line in "${RESULTS[@]}"; do
+        echo "$line"
+    done
+    echo ""
+    print_status "Full reports and service logs are in $RESULTS_DIR"
+    print_warning "Pinning sites, if any, are logged by VirtualThreadPinningMonitor in service-true.log"
+}
+
+main "$@"
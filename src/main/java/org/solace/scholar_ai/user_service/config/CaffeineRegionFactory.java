@@ -0,0 +1,125 @@
+package org.solace.scholar_ai.user_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * In-process Hibernate second-level cache backed by one Caffeine cache per
+ * region.
+ *
+ * <p>Entity, natural-id and query result regions are bounded by
+ * {@code hibernate.cache.caffeine.max-size} entries each and expire
+ * {@code hibernate.cache.caffeine.ttl-ms} after being written, which also
+ * bounds how long another instance's committed writes can go unseen if their
+ * eviction broadcast is lost. The update timestamps region is never evicted:
+ * losing a table's timestamp could let a stale query result be served.
+ *
+ * <p>Hibernate instantiates this class from
+ * {@code hibernate.cache.region.factory_class}; {@link #regions()} exposes the
+ * caches for metrics.
+ */
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+    public static final String MAX_SIZE = "hibernate.cache.caffeine.max-size";
+    public static final String TTL_MS = "hibernate.cache.caffeine.ttl-ms";
+
+    private final Map<String, Cache<Object, Object>> regions = new ConcurrentHashMap<>();
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object configuredMaxSize = configValues.get(MAX_SIZE);
+        if (configuredMaxSize != null) {
+            maxSize = Long.parseLong(configuredMaxSize.toString());
+        }
+        Object configuredTtl = configValues.get(TTL_MS);
+        if (configuredTtl != null) {
+            ttl = Duration.ofMillis(Long.parseLong(configuredTtl.toString()));
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(Cache::invalidateAll);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+            DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(boundedRegion(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(
+            String regionName, SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(boundedRegion(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(
+            String regionName, SessionFactoryImplementor sessionFactory) {
+        // One entry per table, so it stays small without a bound
+        return new CaffeineStorageAccess(regions.computeIfAbsent(
+                regionName, name -> Caffeine.newBuilder().recordStats().build()));
+    }
+
+    /**
+     * @return the cache behind each region built so far, by region name
+     */
+    public Map<String, Cache<Object, Object>> regions() {
+        return Map.copyOf(regions);
+    }
+
+    private Cache<Object, Object> boundedRegion(String regionName) {
+        return regions.computeIfAbsent(regionName, name -> Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    private record CaffeineStorageAccess(Cache<Object, Object> cache) implements DomainDataStorageAccess {
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
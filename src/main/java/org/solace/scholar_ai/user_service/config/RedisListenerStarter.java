@@ -0,0 +1,37 @@
+package org.solace.scholar_ai.user_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the Redis pub/sub listener container, retrying until Redis is
+ * reachable. Once started, the container recovers lost connections on its own.
+ */
+@Component
+public class RedisListenerStarter {
+    private static final Logger logger = LoggerFactory.getLogger(RedisListenerStarter.class);
+
+    private final RedisMessageListenerContainer container;
+
+    public RedisListenerStarter(RedisMessageListenerContainer container) {
+        this.container = container;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.data.redis.listener.start-retry-ms:10000}")
+    public void ensureStarted() {
+        if (container.isRunning()) {
+            return;
+        }
+        try {
+            container.start();
+            logger.info("Redis message listener container started");
+        } catch (Exception e) {
+            // A failed start leaves the container marked as running; reset it for the next attempt
+            container.stop();
+            logger.warn("Redis message listener container could not start, will retry: {}", e.getMessage());
+        }
+    }
+}
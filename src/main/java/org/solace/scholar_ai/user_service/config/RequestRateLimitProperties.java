@@ -0,0 +1,55 @@
+package org.solace.scholar_ai.user_service.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-route request rate limits applied by
+ * {@link org.solace.scholar_ai.user_service.security.RateLimitFilter}.
+ * The first rule whose pattern and method match a request applies to it.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.request-limits")
+public class RequestRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound on the number of distinct clients tracked per node. */
+    private long maxTrackedClients = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum Scope {
+        /** One bucket per client IP. */
+        IP,
+        /** One bucket per authenticated user, falling back to the client IP. */
+        PRINCIPAL
+    }
+
+    @Getter
+    @Setter
+    public static class Rule {
+        /** Name used in logs and metrics. */
+        private String name;
+
+        /** Ant-style path pattern, e.g. {@code /api/v1/profile/**}. */
+        private String pattern;
+
+        /** HTTP methods the rule applies to; empty means all. */
+        private List<String> methods = new ArrayList<>();
+
+        private Scope scope = Scope.IP;
+
+        /** Maximum burst size. */
+        private int capacity = 20;
+
+        /** Sustained rate once the burst is spent. */
+        private double refillPerSecond = 5;
+    }
+}
@@ -0,0 +1,174 @@
+package org.solace.scholar_ai.user_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the in-process second-level caches of all instances consistent and
+ * exposes their region statistics.
+ *
+ * <p>Hibernate invalidates this instance's regions on every write it makes.
+ * Other instances learn about committed writes through a Redis pub/sub
+ * channel: an updated or deleted entity is evicted by id, and any write drops
+ * the query result regions, whose entries may depend on the changed table.
+ * Messages that are lost are covered by the regions' TTL.
+ *
+ * <p>Each region is published as a Caffeine cache named
+ * {@code hibernate.<region>} in the {@code cache.*} metrics.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheCoordinator
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheCoordinator.class);
+    private static final String EVICTION_CHANNEL = "hibernate_l2:evict";
+    private static final String SEPARATOR = "|";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    // Lets an instance skip its own broadcasts, which Hibernate has already applied locally
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public SecondLevelCacheCoordinator(
+            EntityManagerFactory entityManagerFactory,
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (sessionFactory.getCache().getRegionFactory() instanceof CaffeineRegionFactory regionFactory) {
+            regionFactory
+                    .regions()
+                    .forEach((name, cache) -> CaffeineCacheMetrics.monitor(meterRegistry, cache, "hibernate." + name));
+        }
+
+        EventListenerRegistry registry =
+                sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evict(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EVICTION_CHANNEL));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // New rows are not in any region yet, but cached query results may now be incomplete
+        publish("insert", event.getPersister(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish("update", event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish("delete", event.getPersister(), event.getId());
+    }
+
+    /**
+     * Tells other instances about rows inserted by a native statement, for
+     * which Hibernate raises no entity events. Sent once the current
+     * transaction commits, like the events of entity writes.
+     *
+     * @param entityClass an entity whose table the statement inserted into
+     */
+    public void publishNativeInsert(Class<?> entityClass) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish("insert", persister, null);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish("insert", persister, null);
+            }
+        });
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    private void publish(String operation, EntityPersister persister, Object id) {
+        String message = String.join(
+                SEPARATOR, instanceId, operation, persister.getEntityName(), id != null ? id.toString() : "");
+        try {
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, message);
+        } catch (Exception e) {
+            logger.warn(
+                    "Failed to publish second-level cache eviction for {}, other instances expire it by TTL: {}",
+                    persister.getEntityName(),
+                    e.getMessage());
+        }
+    }
+
+    private void evict(String message) {
+        String[] parts = message.split("\\" + SEPARATOR, -1);
+        if (parts.length != 4 || parts[0].equals(instanceId)) {
+            return;
+        }
+        String operation = parts[1];
+        String entityName = parts[2];
+        Cache cache = sessionFactory.getCache();
+        if (!parts[3].isEmpty()) {
+            try {
+                // All entity ids in this service are UUIDs
+                cache.evictEntityData(entityName, UUID.fromString(parts[3]));
+            } catch (IllegalArgumentException e) {
+                cache.evictEntityData(entityName);
+            }
+        }
+        if ("delete".equals(operation)) {
+            // Natural ids are immutable, so only a delete can leave a stale natural id mapping
+            cache.evictNaturalIdData(entityName);
+        }
+        cache.evictQueryRegions();
+    }
+}
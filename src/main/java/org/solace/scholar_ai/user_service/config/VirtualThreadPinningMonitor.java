@@ -0,0 +1,129 @@
+package org.solace.scholar_ai.user_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread,
+ * typically inside a {@code synchronized} block or a native frame of a
+ * driver, which stops the carrier from running other virtual threads.
+ *
+ * <p>Active only in virtual-thread mode. Listens to the JFR
+ * {@code jdk.VirtualThreadPinned} event in-process and records each pinning
+ * in the {@code jvm.threads.virtual.pinned} timer, tagged with the first
+ * frame outside the JDK. The stack of each new pinning site is logged once,
+ * then every {@code log-every}th occurrence.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> occurrencesBySite = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @Value("${diagnostics.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${diagnostics.virtual-threads.log-every:100}")
+    private long logEvery;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Reporting virtual threads pinned for longer than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String site = pinningSite(frames);
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to a carrier thread")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        long occurrences =
+                occurrencesBySite.computeIfAbsent(site, key -> new AtomicLong()).incrementAndGet();
+        if (occurrences == 1 || occurrences % logEvery == 0) {
+            logger.warn(
+                    "Virtual thread pinned for {} ms at {} ({} times so far):{}",
+                    event.getDuration().toMillis(),
+                    site,
+                    occurrences,
+                    describe(frames));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace != null ? stackTrace.getFrames() : List.of();
+    }
+
+    // The first frame outside the JDK is usually the driver or application code holding the monitor
+    private static String pinningSite(List<RecordedFrame> frames) {
+        RecordedFrame fallback = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (fallback == null) {
+                fallback = frame;
+            }
+            String className = frame.getMethod().getType().getName();
+            if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+                return methodName(frame);
+            }
+        }
+        return fallback != null ? methodName(fallback) : "unknown";
+    }
+
+    private static String methodName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        StringBuilder description = new StringBuilder();
+        frames.stream().limit(LOGGED_FRAMES).forEach(frame -> description
+                .append(System.lineSeparator())
+                .append("\tat ")
+                .append(methodName(frame))
+                .append(':')
+                .append(frame.getLineNumber()));
+        return description.toString();
+    }
+}
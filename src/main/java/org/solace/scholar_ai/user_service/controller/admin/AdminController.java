@@ -13,6 +13,7 @@ import org.solace.scholar_ai.user_service.dto.response.APIResponse;
 import org.solace.scholar_ai.user_service.model.UserRole;
 import org.solace.scholar_ai.user_service.repository.UserRepository;
 import org.solace.scholar_ai.user_service.service.SystemMetricsService;
+import org.solace.scholar_ai.user_service.service.auth.RegisteredEmailIndex;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,6 +29,7 @@ public class AdminController {
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
     private final UserRepository userRepository;
     private final SystemMetricsService systemMetricsService;
+    private final RegisteredEmailIndex registeredEmailIndex;
 
     @Operation(
             summary = "Get User Count Statistics",
@@ -88,4 +90,23 @@ public class AdminController {
                             null));
         }
     }
+
+    @Operation(
+            summary = "Rebuild Registered Email Filter",
+            description = "Rebuilds the registered email filter used by the email availability checks from the"
+                    + " users table, on every instance. Drops emails of deleted accounts and resets the"
+                    + " false-positive statistics")
+    @ApiResponse(responseCode = "202", description = "Rebuild requested")
+    @ApiResponse(responseCode = "401", description = "Unauthorized")
+    @PostMapping("/users/email-index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<APIResponse<Map<String, Object>>> rebuildEmailIndex() {
+        logger.info("Admin registered email filter rebuild endpoint hit");
+        Map<String, Object> before = Map.of(
+                "size", registeredEmailIndex.size(),
+                "observedFalsePositiveRate", registeredEmailIndex.observedFalsePositiveRate());
+        registeredEmailIndex.requestRebuild();
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(APIResponse.success(HttpStatus.ACCEPTED.value(), "Rebuild requested", before));
+    }
 }
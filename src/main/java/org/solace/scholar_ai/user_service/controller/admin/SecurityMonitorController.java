@@ -0,0 +1,49 @@
+package org.solace.scholar_ai.user_service.controller.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.dto.response.APIResponse;
+import org.solace.scholar_ai.user_service.security.FailedLoginMonitor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/security")
+@Tag(name = "Admin", description = "Admin endpoints for metrics and management")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+public class SecurityMonitorController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityMonitorController.class);
+    private static final int MAX_LIMIT = 100;
+    private final FailedLoginMonitor failedLoginMonitor;
+
+    @Operation(
+            summary = "Get Failed Login Heavy Hitters",
+            description = "Returns the accounts, IPs or subnets with the most recent failed logins on this instance."
+                    + " Counts are approximate and decay over time")
+    @ApiResponse(responseCode = "200", description = "Heavy hitters retrieved successfully")
+    @ApiResponse(responseCode = "401", description = "Unauthorized")
+    @GetMapping("/failed-logins/top")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<APIResponse<List<FailedLoginMonitor.Offender>>> getFailedLoginHeavyHitters(
+            @Parameter(description = "ACCOUNT, IP or SUBNET") @RequestParam(defaultValue = "ACCOUNT")
+                    FailedLoginMonitor.Dimension dimension,
+            @Parameter(description = "Maximum number of entries, up to 100") @RequestParam(defaultValue = "20")
+                    int limit) {
+        logger.info("Admin failed login heavy hitters endpoint hit for {}", dimension);
+        List<FailedLoginMonitor.Offender> offenders =
+                failedLoginMonitor.topOffenders(dimension, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ResponseEntity.ok(
+                APIResponse.success(HttpStatus.OK.value(), "Heavy hitters retrieved successfully", offenders));
+    }
+}
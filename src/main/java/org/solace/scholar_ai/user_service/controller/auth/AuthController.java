@@ -26,7 +26,9 @@ import org.solace.scholar_ai.user_service.dto.auth.RefreshTokenRequest;
 import org.solace.scholar_ai.user_service.dto.auth.ResendEmailConfirmationDTO;
 import org.solace.scholar_ai.user_service.dto.auth.SignupDTO;
 import org.solace.scholar_ai.user_service.dto.response.APIResponse;
-import org.solace.scholar_ai.user_service.security.LoginAttemptService;
+import org.solace.scholar_ai.user_service.exception.CustomException;
+import org.solace.scholar_ai.user_service.security.AuthRateLimiter;
+import org.solace.scholar_ai.user_service.security.TokenBlacklistService;
 import org.solace.scholar_ai.user_service.service.auth.AuthService;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -48,7 +50,8 @@ public class AuthController {
 
 	private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 	private final AuthService authService;
-	private final LoginAttemptService loginAttemptService;
+	private final AuthRateLimiter authRateLimiter;
+	private final TokenBlacklistService tokenBlacklistService;
 
 	/**
 	 * Register a new user account.
@@ -122,6 +125,8 @@ public class AuthController {
             authService.registerUser(signupDTO.getEmail(), signupDTO.getPassword(), signupDTO.getRole());
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(APIResponse.success(HttpStatus.CREATED.value(), "User registered successfully", null));
+        } catch (CustomException e) {
+            return errorResponse(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(APIResponse.error(
@@ -216,19 +221,17 @@ public class AuthController {
             String clientIp = getClientIp(request);
             String email = loginDTO.getEmail();
             
-            if (loginAttemptService.isBlocked(email)) {
-                long remainingTime = loginAttemptService.getRemainingLockoutTime(email);
-                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                        .body(APIResponse.error(
-                                HttpStatus.TOO_MANY_REQUESTS.value(),
-                                "Account temporarily locked. Try again in " + remainingTime + " seconds",
-                                null));
+            AuthRateLimiter.Decision decision =
+                    authRateLimiter.tryAcquire(AuthRateLimiter.Action.LOGIN, email, clientIp);
+            if (!decision.allowed()) {
+                return tooManyRequests(
+                        decision, "Too many login attempts. Try again in " + decision.retryAfterSeconds() + " seconds");
             }
 
             logger.info("Login attempt from {} for email: {}", clientIp, email);
 
             AuthResponse authResponse = authService.loginUser(email, loginDTO.getPassword());
-            loginAttemptService.loginSucceeded(email);
+            authRateLimiter.loginSucceeded(email, decision);
 
             logger.info("Login successful for: {}", email);
 
@@ -246,12 +249,13 @@ public class AuthController {
             return ResponseEntity.ok(APIResponse.success(HttpStatus.OK.value(), "Login successful", authResponse));
 
         } catch (BadCredentialsException e) {
-            loginAttemptService.loginFailed(loginDTO.getEmail());
-            int attempts = loginAttemptService.getAttempts(loginDTO.getEmail());
-            logger.warn("Failed login attempt {} for: {}", attempts, loginDTO.getEmail());
+            authRateLimiter.loginFailed(loginDTO.getEmail(), getClientIp(request));
+            logger.warn("Failed login attempt for: {}", loginDTO.getEmail());
             
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(APIResponse.error(HttpStatus.UNAUTHORIZED.value(), "Invalid credentials", null));
+        } catch (CustomException e) {
+            return errorResponse(e);
         } catch (Exception e) {
             logger.error("Login error: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -448,6 +452,7 @@ public class AuthController {
 
             String email = principal.getName();
             authService.logoutUser(email);
+            tokenBlacklistService.blacklistTokenFromRequest(request);
 
             // Clear the cookie using ResponseCookie
             ResponseCookie clearCookie = ResponseCookie.from("refreshToken", "")
@@ -519,10 +524,17 @@ public class AuthController {
     @PostMapping("/forgot-password")
     public ResponseEntity<APIResponse<String>> forgotPassword(
             @Parameter(description = "Email address for password reset", example = "user@example.com") @RequestParam
-                    String email) {
+                    String email,
+            HttpServletRequest request) {
         try {
             logger.info("forgot password endpoint hit with email: {}", email);
 
+            AuthRateLimiter.Decision decision =
+                    authRateLimiter.tryAcquire(AuthRateLimiter.Action.FORGOT_PASSWORD, email, getClientIp(request));
+            if (!decision.allowed()) {
+                return tooManyRequests(decision, "Too many password reset requests. Please try again later");
+            }
+
             String resetCode = authService.generateResetCode(email);
             return ResponseEntity.ok(APIResponse.success(
                     HttpStatus.OK.value(),
@@ -596,6 +608,8 @@ public class AuthController {
 
             authService.verifyCodeAndResetPassword(email, code, newPassword);
             return ResponseEntity.ok(APIResponse.success(HttpStatus.OK.value(), "Password reset successfully.", null));
+        } catch (CustomException e) {
+            return errorResponse(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(APIResponse.error(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
@@ -747,10 +761,19 @@ public class AuthController {
                                         """)))
                     @Valid
                     @RequestBody
-                    ResendEmailConfirmationDTO resendEmailConfirmationDTO) {
+                    ResendEmailConfirmationDTO resendEmailConfirmationDTO,
+            HttpServletRequest request) {
         try {
             logger.info("resend-email-verification endpoint hit with email: {}", resendEmailConfirmationDTO.getEmail());
 
+            AuthRateLimiter.Decision decision = authRateLimiter.tryAcquire(
+                    AuthRateLimiter.Action.RESEND_VERIFICATION,
+                    resendEmailConfirmationDTO.getEmail(),
+                    getClientIp(request));
+            if (!decision.allowed()) {
+                return tooManyRequests(decision, "Too many verification emails requested. Please try again later");
+            }
+
             authService.resendEmailVerification(resendEmailConfirmationDTO.getEmail());
             return ResponseEntity.ok(
                     APIResponse.success(HttpStatus.OK.value(), "Verification email sent successfully", null));
@@ -919,11 +942,20 @@ public class AuthController {
         }
     }
     
+    private <T> ResponseEntity<APIResponse<T>> errorResponse(CustomException e) {
+        return ResponseEntity.status(e.getStatus())
+                .body(APIResponse.error(e.getStatus().value(), e.getMessage(), null));
+    }
+
+    private <T> ResponseEntity<APIResponse<T>> tooManyRequests(AuthRateLimiter.Decision decision, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()))
+                .body(APIResponse.error(HttpStatus.TOO_MANY_REQUESTS.value(), message, null));
+    }
+
+    // Rate limit key: X-Forwarded-For is client-controlled, so only the container's
+    // RemoteIpValve may resolve it, and only for trusted proxies (server.forward-headers-strategy)
     private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
         return request.getRemoteAddr();
     }
 }
@@ -0,0 +1,49 @@
+package org.solace.scholar_ai.user_service.controller.auth;
+
+import io.jsonwebtoken.security.PublicJwk;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.user_service.security.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Publishes the public keys used to sign access tokens so other services can
+ * verify tokens locally instead of calling back into the user service.
+ */
+@RestController
+@Tag(name = "Authentication", description = "User registration, login, and token management")
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @Operation(
+            summary = "JSON Web Key Set",
+            description = "Public keys for verifying access tokens by their `kid` header. "
+                    + "Empty while tokens are signed with the shared HS256 secret.")
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, List<PublicJwk<?>>>> jwks(WebRequest request) {
+        List<PublicJwk<?>> keys = keyRing.publicJwks();
+        String etag = "\""
+                + Integer.toHexString(
+                        keys.stream().map(PublicJwk::getId).toList().hashCode()) + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(keyRing.jwksMaxAge()).cachePublic();
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(etag)
+                    .build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(etag).body(Map.of("keys", keys));
+    }
+}
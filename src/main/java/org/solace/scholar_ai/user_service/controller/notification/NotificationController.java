@@ -10,7 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.solace.scholar_ai.user_service.dto.response.APIResponse;
-import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.repository.NotificationRecipient;
 import org.solace.scholar_ai.user_service.repository.UserRepository;
 import org.solace.scholar_ai.user_service.service.notification.NotificationService;
 import org.springframework.http.HttpStatus;
@@ -40,11 +40,14 @@ public class NotificationController {
     @PostMapping("/send")
     public ResponseEntity<APIResponse<String>> sendNotification(@RequestBody CrossServiceNotificationRequest req) {
         try {
-            User user = findUserById(req.userId());
-            String recipientName = determineRecipientName(user);
-            
+            NotificationRecipient recipient = findRecipientById(req.userId());
+
             notificationService.sendGenericNotificationToUser(
-                    req.userId(), req.notificationType(), req.templateData(), user.getEmail(), recipientName);
+                    req.userId(),
+                    req.notificationType(),
+                    req.templateData(),
+                    recipient.email(),
+                    recipient.displayName());
             
             return ResponseEntity.ok(
                     APIResponse.success(HttpStatus.OK.value(), NOTIFICATION_DISPATCHED_MSG, null));
@@ -55,13 +58,9 @@ public class NotificationController {
         }
     }
     
-    private User findUserById(UUID userId) {
+    private NotificationRecipient findRecipientById(UUID userId) {
         return userRepository
-                .findWithProfileById(userId)
+                .findNotificationRecipientById(userId)
                 .orElseThrow(() -> new RuntimeException(USER_NOT_FOUND_ERROR));
     }
-    
-    private String determineRecipientName(User user) {
-        return user.getProfile() != null ? user.getProfile().getFullName() : user.getEmail();
-    }
 }
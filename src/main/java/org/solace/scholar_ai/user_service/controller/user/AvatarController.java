@@ -9,11 +9,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.security.Principal;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.solace.scholar_ai.user_service.dto.response.APIResponse;
 import org.solace.scholar_ai.user_service.dto.user.AvatarUploadResponse;
-import org.solace.scholar_ai.user_service.model.User;
 import org.solace.scholar_ai.user_service.repository.UserRepository;
 import org.solace.scholar_ai.user_service.service.user.AvatarService;
 import org.springframework.http.HttpStatus;
@@ -53,8 +53,8 @@ public class AvatarController {
     public ResponseEntity<APIResponse<AvatarUploadResponse>> upload(
             Principal principal, @RequestPart("file") MultipartFile file) {
         try {
-            User user = getUserByPrincipal(principal);
-            AvatarUploadResponse response = uploadAvatar(user, file);
+            UUID userId = getUserIdByPrincipal(principal);
+            AvatarUploadResponse response = uploadAvatar(userId, file);
 
             return ResponseEntity.ok(APIResponse.success(200, AVATAR_UPLOAD_SUCCESS, response));
         } catch (Exception e) {
@@ -64,22 +64,22 @@ public class AvatarController {
         }
     }
     
-    private User getUserByPrincipal(Principal principal) {
+    private UUID getUserIdByPrincipal(Principal principal) {
         String email = principal.getName();
         return userRepository
-                .findByEmail(email)
+                .findIdByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
     }
     
-    private AvatarUploadResponse uploadAvatar(User user, MultipartFile file) throws Exception {
+    private AvatarUploadResponse uploadAvatar(UUID userId, MultipartFile file) throws Exception {
         byte[] bytes = file.getBytes();
         Map<String, Object> uploadResult = avatarService.uploadToCloudinary(
-                user.getId(), file.getOriginalFilename(), file.getContentType(), bytes);
+                userId, file.getOriginalFilename(), file.getContentType(), bytes);
         
         String secureUrl = (String) uploadResult.get(SECURE_URL_KEY);
         String publicId = (String) uploadResult.get(PUBLIC_ID_KEY);
 
-        avatarService.setAvatarFromCloudinary(user.getId(), publicId, secureUrl);
+        avatarService.setAvatarFromCloudinary(userId, publicId, secureUrl);
         
         return new AvatarUploadResponse(secureUrl, publicId);
     }
@@ -95,10 +95,10 @@ public class AvatarController {
     @DeleteMapping
     public ResponseEntity<APIResponse<String>> deleteAvatar(Principal principal) {
         try {
-            User user = getUserByPrincipal(principal);
-            log.info("Delete avatar request for user: {}", user.getEmail());
+            UUID userId = getUserIdByPrincipal(principal);
+            log.info("Delete avatar request for user: {}", principal.getName());
 
-            avatarService.deleteCurrentAvatar(user.getId());
+            avatarService.deleteCurrentAvatar(userId);
 
             return ResponseEntity.status(HttpStatus.NO_CONTENT)
                     .body(APIResponse.success(HttpStatus.NO_CONTENT.value(), AVATAR_DELETE_SUCCESS, null));
@@ -12,7 +12,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.io.IOException;
 import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -20,13 +23,18 @@ import org.slf4j.LoggerFactory;
 import org.solace.scholar_ai.user_service.dto.response.APIResponse;
 import org.solace.scholar_ai.user_service.dto.user.UserProfileDTO;
 import org.solace.scholar_ai.user_service.dto.user.UserProfileResponseDTO;
-import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.exception.CustomException;
+import org.solace.scholar_ai.user_service.exception.ErrorCode;
+import org.solace.scholar_ai.user_service.repository.ProfileVersion;
 import org.solace.scholar_ai.user_service.repository.UserRepository;
 import org.solace.scholar_ai.user_service.service.user.UserProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
@@ -41,6 +49,10 @@ public class UserProfileController {
         private static final String PROFILE_UPDATED_MSG = "Profile updated successfully";
         private static final String AVATAR_UPLOADED_MSG = "Avatar uploaded successfully";
         private static final String AVATAR_DELETED_MSG = "Avatar deleted successfully";
+        // Per-user responses: clients may keep them but must revalidate before each use
+        private static final CacheControl PROFILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+        // The response depends on who is asking; requests authenticate by bearer token or refresh cookie
+        private static final String[] PROFILE_VARY = {HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE};
     
         private final UserProfileService userProfileService;
         private final UserRepository userRepository;
@@ -49,17 +61,33 @@ public class UserProfileController {
     private ObjectMapper objectMapper;
 
 	@SecurityRequirement(name = "jwtAuth")
-	@Operation(summary = "Get user profile")
+	@Operation(summary = "Get user profile",
+			description = "Supports If-None-Match and If-Modified-Since; an unchanged profile is answered with 304")
 	@GetMapping
-	public ResponseEntity<APIResponse<UserProfileResponseDTO>> getProfile(Principal principal) {
+	public ResponseEntity<APIResponse<UserProfileResponseDTO>> getProfile(Principal principal, WebRequest request) {
         try {
             String email = principal.getName();
             logger.info("Get profile endpoint hit with email: {}", email);
+
+            // The frontend polls this endpoint; a current client copy is confirmed from the version alone
+            Optional<ProfileVersion> current = userProfileService.getProfileVersionByEmail(email);
+            if (current.isPresent()
+                    && request.checkNotModified(
+                            eTag(current.get().profileId(), current.get().version()),
+                            lastModified(current.get().updatedAt()))) {
+                // checkNotModified has already set the ETag and Last-Modified headers
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(PROFILE_CACHE_CONTROL)
+                        .varyBy(PROFILE_VARY)
+                        .build();
+            }
+
             UserProfileResponseDTO userProfile = userProfileService.getProfileByEmail(email);
             logger.info("Fetched user profile details: {}", objectMapper.writeValueAsString(userProfile));
 
-                                return ResponseEntity.ok(
-                                                APIResponse.success(HttpStatus.OK.value(), PROFILE_FETCHED_MSG, userProfile));
+                                return ResponseEntity.ok()
+                                                .headers(validators(userProfile))
+                                                .body(APIResponse.success(HttpStatus.OK.value(), PROFILE_FETCHED_MSG, userProfile));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(APIResponse.error(HttpStatus.NOT_FOUND.value(), e.getMessage(), null));
@@ -67,23 +95,32 @@ public class UserProfileController {
 	}
 
 	@SecurityRequirement(name = "jwtAuth")
-	@Operation(summary = "Update user profile")
+	@Operation(summary = "Update user profile",
+			description = "Send the ETag from the last read as If-Match; a profile changed since then is rejected with 412")
 	@PatchMapping
 	public ResponseEntity<APIResponse<UserProfileResponseDTO>> updateProfile(
-			Principal principal, @Valid @RequestBody UserProfileDTO userProfileDTO) {
+			Principal principal,
+			@Parameter(description = "ETag of the profile being updated")
+					@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@Valid @RequestBody UserProfileDTO userProfileDTO) {
         try {
             String email = principal.getName();
             logger.info("Update profile endpoint hit with email: {}", email);
 
-            User user = userRepository
-                    .findByEmail(email)
-                        .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
+            UUID userId = userRepository
+                    .findIdByEmail(email)
+                    .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
 
-            UserProfileResponseDTO updatedProfile = userProfileService.updateProfile(user.getId(), userProfileDTO);
+            UserProfileResponseDTO updatedProfile =
+                    userProfileService.updateProfile(userId, userProfileDTO, expectedProfile(ifMatch));
             logger.info("Updated user profile details: {}", objectMapper.writeValueAsString(updatedProfile));
 
-                return ResponseEntity.ok(
-                        APIResponse.success(HttpStatus.OK.value(), PROFILE_UPDATED_MSG, updatedProfile));
+                return ResponseEntity.ok()
+                        .headers(validators(updatedProfile))
+                        .body(APIResponse.success(HttpStatus.OK.value(), PROFILE_UPDATED_MSG, updatedProfile));
+        } catch (CustomException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(APIResponse.error(e.getStatus().value(), e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(APIResponse.error(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
@@ -101,12 +138,12 @@ public class UserProfileController {
             String email = principal.getName();
             logger.info("Upload avatar endpoint hit with email: {}", email);
 
-            User user = userRepository
-                    .findByEmail(email)
-                                        .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
+            UUID userId = userRepository
+                    .findIdByEmail(email)
+                    .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
 
             String avatarUrl = uploadToStorage(file);
-            UserProfileResponseDTO updatedProfile = userProfileService.updateAvatarUrl(user.getId(), avatarUrl);
+            UserProfileResponseDTO updatedProfile = userProfileService.updateAvatarUrl(userId, avatarUrl);
 
             Map<String, String> response = Map.of("avatarUrl", avatarUrl);
 
@@ -126,11 +163,11 @@ public class UserProfileController {
             String email = principal.getName();
             logger.info("Delete avatar endpoint hit with email: {}", email);
 
-            User user = userRepository
-                    .findByEmail(email)
-                                                .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
+            UUID userId = userRepository
+                    .findIdByEmail(email)
+                    .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND_MSG + email));
 
-            userProfileService.deleteAvatarUrl(user.getId());
+            userProfileService.deleteAvatarUrl(userId);
 
                                 return ResponseEntity.ok(APIResponse.success(HttpStatus.OK.value(), AVATAR_DELETED_MSG, null));
         } catch (Exception e) {
@@ -155,4 +192,48 @@ public class UserProfileController {
         // 3. Return the actual URL
         return "https://placeholder.com/avatar/" + UUID.randomUUID() + ".jpg";
     }
+
+    // Every user reads the same URL, so the tag names the profile as well as its version,
+    // which every update bumps
+    private static String eTag(UUID profileId, Long version) {
+        return "\"" + profileId + "-" + version + "\"";
+    }
+
+    private static long lastModified(Instant updatedAt) {
+        return updatedAt != null ? updatedAt.toEpochMilli() : -1;
+    }
+
+    private static HttpHeaders validators(UserProfileResponseDTO profile) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag(profile.getId(), profile.getVersion()));
+        if (profile.getUpdatedAt() != null) {
+            headers.setLastModified(profile.getUpdatedAt());
+        }
+        headers.setCacheControl(PROFILE_CACHE_CONTROL);
+        headers.setVary(List.of(PROFILE_VARY));
+        return headers;
+    }
+
+    // Null skips the check; If-Match uses strong comparison, so weak or malformed tags never match
+    private static ProfileVersion expectedProfile(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        int separator = tag.lastIndexOf('-');
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"") && separator > 0) {
+            try {
+                return new ProfileVersion(
+                        UUID.fromString(tag.substring(1, separator)),
+                        Long.parseLong(tag.substring(separator + 1, tag.length() - 1)),
+                        null);
+            } catch (IllegalArgumentException ignored) {
+                // Falls through to the precondition failure; NumberFormatException is one too
+            }
+        }
+        throw new CustomException(
+                "If-Match does not match the current profile: " + ifMatch,
+                HttpStatus.PRECONDITION_FAILED,
+                ErrorCode.PRECONDITION_FAILED);
+    }
 }
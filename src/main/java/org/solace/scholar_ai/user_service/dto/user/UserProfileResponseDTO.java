@@ -29,4 +29,5 @@ public class UserProfileResponseDTO {
     private String twitterUrl;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 }
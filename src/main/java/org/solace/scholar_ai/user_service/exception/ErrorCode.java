@@ -18,13 +18,15 @@ public enum ErrorCode {
     // Resource & Method Errors
     RESOURCE_NOT_FOUND("Please verify the requested resource exists and the URL is correct."),
     METHOD_NOT_ALLOWED("Please use one of the supported HTTP methods for this endpoint."),
+    PRECONDITION_FAILED("The resource has changed since you read it. Please fetch it again and retry."),
     // System Errors
     INTERNAL_ERROR("Please try again later or contact support if the issue persists."),
     EMAIL_SENDING_FAILED("Please check the email service configuration and try again."),
     EXTERNAL_API_ERROR("External API request failed. Please try again later or contact support."),
     DUPLICATE("Please ensure the resource you're trying to create does not already exist."),
     VALIDATION_ERROR("Please review the validation errors and correct your request."),
-    CONFIGURATION_ERROR("Please check the application configuration for any issues.");
+    CONFIGURATION_ERROR("Please check the application configuration for any issues."),
+    SERVICE_OVERLOADED("The service is busy. Please retry after a short delay.");
 
     private final String suggestion;
 
@@ -7,19 +7,34 @@ import java.util.List;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = User.WITH_PROFILE, attributeNodes = @NamedAttributeNode("profile"))
+@NamedEntityGraph(
+        name = User.WITH_IDENTITY_PROVIDERS,
+        attributeNodes = {@NamedAttributeNode("identityProviders"), @NamedAttributeNode("profile")})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
+    public static final String WITH_PROFILE = "User.profile";
+    public static final String WITH_IDENTITY_PROVIDERS = "User.identityProviders";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id", columnDefinition = "uuid")
     private UUID id;
 
+    @NaturalId
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
@@ -45,9 +60,11 @@ public class User {
     private Instant updatedAt;
 
     @JsonManagedReference
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
+    // Only lazy when the entities are bytecode enhanced (the bytecode-enhancement Maven profile);
+    // otherwise loading a user also selects its profile
+    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private UserProfile profile;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<UserIdentityProvider> identityProviders;
 }
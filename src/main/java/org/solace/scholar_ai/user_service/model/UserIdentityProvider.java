@@ -5,20 +5,36 @@ import java.time.Instant;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "user_identity_providers")
+@Table(
+        name = "user_identity_providers",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "idx_user_identity_providers_provider_identity",
+                        columnNames = {"provider", "provider_user_id"}))
+// The user's profile is joined in too, since without bytecode enhancement it would be loaded by a second select
+@NamedEntityGraph(
+        name = UserIdentityProvider.WITH_USER,
+        attributeNodes = @NamedAttributeNode(value = "user", subgraph = "user"),
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("profile")))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class UserIdentityProvider {
+    public static final String WITH_USER = "UserIdentityProvider.user";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "id")
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
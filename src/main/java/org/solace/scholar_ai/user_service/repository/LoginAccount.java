@@ -0,0 +1,23 @@
+package org.solace.scholar_ai.user_service.repository;
+
+import java.util.UUID;
+import org.solace.scholar_ai.user_service.model.UserRole;
+
+/**
+ * The columns needed to authenticate a user, loaded in a single query by
+ * {@link UserRepository#findLoginAccountByEmail}.
+ *
+ * @param id                the user's id
+ * @param email             the user's email (the username)
+ * @param encryptedPassword the stored password hash
+ * @param role              the user's role
+ * @param emailConfirmed    whether the email has been confirmed
+ * @param socialAccount     whether the user is linked to a social login provider
+ */
+public record LoginAccount(
+        UUID id,
+        String email,
+        String encryptedPassword,
+        UserRole role,
+        boolean emailConfirmed,
+        boolean socialAccount) {}
@@ -0,0 +1,16 @@
+package org.solace.scholar_ai.user_service.repository;
+
+/**
+ * Who a notification is addressed to, loaded by
+ * {@link UserRepository#findNotificationRecipientById}.
+ *
+ * @param email    the user's email
+ * @param fullName the profile's full name, may be null
+ */
+public record NotificationRecipient(String email, String fullName) {
+
+    /** The full name if the user has set one, otherwise the email. */
+    public String displayName() {
+        return fullName != null ? fullName : email;
+    }
+}
@@ -0,0 +1,21 @@
+package org.solace.scholar_ai.user_service.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The cache validators of a profile, loaded by
+ * {@link UserProfileRepository#findVersionByUserEmail} without reading the
+ * profile itself.
+ *
+ * @param profileId the profile's id
+ * @param version   the profile's optimistic lock version
+ * @param updatedAt when the profile last changed, may be null
+ */
+public record ProfileVersion(UUID profileId, Long version, Instant updatedAt) {
+
+    /** Whether this names the given profile at the given version. */
+    public boolean matches(UUID id, Long currentVersion) {
+        return profileId.equals(id) && version.equals(currentVersion);
+    }
+}
@@ -1,23 +1,32 @@
 package org.solace.scholar_ai.user_service.repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.solace.scholar_ai.user_service.model.UserIdentityProvider;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface UserIdentityProviderRepository extends JpaRepository<UserIdentityProvider, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     UserIdentityProvider findByUserId(UUID userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT uip FROM UserIdentityProvider uip WHERE uip.user.email = :email")
     Optional<UserIdentityProvider> findByUserEmail(@Param("email") String email);
 
+    @EntityGraph(UserIdentityProvider.WITH_USER)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query(
             "SELECT uip FROM UserIdentityProvider uip WHERE uip.provider = :provider AND uip.providerUserId = :providerUserId")
     Optional<UserIdentityProvider> findByProviderAndProviderUserId(
             @Param("provider") String provider, @Param("providerUserId") String providerUserId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT uip FROM UserIdentityProvider uip WHERE uip.user.email = :email AND uip.provider = :provider")
     Optional<UserIdentityProvider> findByUserEmailAndProvider(
             @Param("email") String email, @Param("provider") String provider);
@@ -1,11 +1,25 @@
 package org.solace.scholar_ai.user_service.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.solace.scholar_ai.user_service.model.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     UserProfile findByUserId(UUID userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     UserProfile findByUserEmail(String email);
+
+    // Two columns for conditional GETs; cached until the next write to user_profiles
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new org.solace.scholar_ai.user_service.repository.ProfileVersion(p.id, p.version, p.updatedAt) "
+            + "FROM UserProfile p WHERE p.user.email = :email")
+    Optional<ProfileVersion> findVersionByUserEmail(@Param("email") String email);
 }
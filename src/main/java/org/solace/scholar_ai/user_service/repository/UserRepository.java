@@ -1,16 +1,49 @@
 package org.solace.scholar_ai.user_service.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.solace.scholar_ai.user_service.model.User;
 import org.solace.scholar_ai.user_service.model.UserRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+    boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.profile WHERE u.id = :id")
+    /** For callers that only need to resolve the authenticated email to an id. */
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
+
+    @EntityGraph(User.WITH_IDENTITY_PROVIDERS)
+    Optional<User> findWithIdentityProvidersByEmail(String email);
+
+    @Query("SELECT new org.solace.scholar_ai.user_service.repository.NotificationRecipient(u.email, p.fullName) "
+            + "FROM User u LEFT JOIN u.profile p WHERE u.id = :id")
+    Optional<NotificationRecipient> findNotificationRecipientById(@Param("id") UUID id);
+
+    /** Keyset page of registered emails, in index order, after {@code after}. */
+    @Query("SELECT u.email FROM User u WHERE u.email > :after ORDER BY u.email")
+    List<String> findEmailsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Loads everything login needs in one query on the email index; the social
+     * provider check is an EXISTS on the identity providers' user_id index.
+     */
+    @Query("SELECT new org.solace.scholar_ai.user_service.repository.LoginAccount("
+            + "u.id, u.email, u.encryptedPassword, u.role, u.isEmailConfirmed, "
+            + "CASE WHEN EXISTS (SELECT 1 FROM UserIdentityProvider uip WHERE uip.user = u) THEN true ELSE false END) "
+            + "FROM User u WHERE u.email = :email")
+    Optional<LoginAccount> findLoginAccountByEmail(@Param("email") String email);
+
+    @EntityGraph(User.WITH_PROFILE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findWithProfileById(UUID id);
     
     // Count users by role
@@ -0,0 +1,24 @@
+package org.solace.scholar_ai.user_service.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.solace.scholar_ai.user_service.model.User;
+
+public interface UserRepositoryCustom {
+    /**
+     * Loads a user by natural id, so repeated lookups of the same email are
+     * served from the second-level cache when it is enabled.
+     */
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Inserts a new user and their empty profile in one statement, unless the
+     * email is already taken. Uniqueness is decided by the unique index on
+     * {@code users.email}, so concurrent registrations of the same email cannot
+     * both succeed.
+     *
+     * @return 1 if the user was created, 0 if the email already exists
+     */
+    int insertIfEmailAbsent(UUID id, UUID profileId, String email, String encryptedPassword, String role, Instant now);
+}
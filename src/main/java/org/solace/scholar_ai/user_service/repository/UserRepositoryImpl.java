@@ -0,0 +1,63 @@
+package org.solace.scholar_ai.user_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.solace.scholar_ai.user_service.config.SecondLevelCacheCoordinator;
+import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.model.UserProfile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.annotation.Transactional;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+    private static final String INSERT_IF_EMAIL_ABSENT = "WITH new_user AS ("
+            + "INSERT INTO users (id, email, encrypted_password, role, is_email_confirmed, created_at, updated_at) "
+            + "VALUES (:id, :email, :encryptedPassword, :role, false, :now, :now) "
+            + "ON CONFLICT (email) DO NOTHING RETURNING id) "
+            + "INSERT INTO user_profiles (id, user_id, created_at, updated_at) "
+            + "SELECT :profileId, id, :now, :now FROM new_user";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectProvider<SecondLevelCacheCoordinator> cacheCoordinator;
+
+    UserRepositoryImpl(ObjectProvider<SecondLevelCacheCoordinator> cacheCoordinator) {
+        this.cacheCoordinator = cacheCoordinator;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(email);
+    }
+
+    @Override
+    @Transactional
+    public int insertIfEmailAbsent(
+            UUID id, UUID profileId, String email, String encryptedPassword, String role, Instant now) {
+        // Declaring the written tables lets Hibernate drop only the cached query results over them,
+        // instead of every second-level cache region
+        int inserted = entityManager
+                .createNativeQuery(INSERT_IF_EMAIL_ABSENT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(User.class)
+                .addSynchronizedEntityClass(UserProfile.class)
+                .setParameter("id", id)
+                .setParameter("profileId", profileId)
+                .setParameter("email", email)
+                .setParameter("encryptedPassword", encryptedPassword)
+                .setParameter("role", role)
+                .setParameter("now", now)
+                .executeUpdate();
+        if (inserted > 0) {
+            // Native statements raise no entity events, so other instances are told explicitly
+            cacheCoordinator.ifAvailable(coordinator -> coordinator.publishNativeInsert(User.class));
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,222 @@
+package org.solace.scholar_ai.user_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide rate limiter for the unauthenticated auth endpoints.
+ *
+ * <p>Each decision is made in two tiers. A node-local token bucket per client IP
+ * rejects obvious floods without any network call. Requests that pass it are
+ * checked against sliding windows per account and per client IP held in Redis,
+ * using a Lua script that checks and records every window atomically in a
+ * single round trip, so all instances share one count. When Redis is
+ * unreachable, login falls back to the node-local lockout in
+ * {@link LoginAttemptService}; the other actions rely on the local tier only.
+ *
+ * <p>Limits are read from {@code security.rate-limit.<action>.*}, for example
+ * {@code security.rate-limit.login.account-limit}.
+ */
+@Component
+public class AuthRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimiter.class);
+    private static final String REDIS_KEY_PREFIX = "rate_limit:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LoginAttemptService loginAttemptService;
+    private final FailedLoginMonitor failedLoginMonitor;
+    private final Environment environment;
+    private final RedisScript<List> slidingWindowScript;
+    private final Cache<String, TokenBucket> localBuckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    public AuthRateLimiter(
+            RedisTemplate<String, String> redisTemplate,
+            LoginAttemptService loginAttemptService,
+            FailedLoginMonitor failedLoginMonitor,
+            Environment environment) {
+        this.redisTemplate = redisTemplate;
+        this.loginAttemptService = loginAttemptService;
+        this.failedLoginMonitor = failedLoginMonitor;
+        this.environment = environment;
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/sliding_window_rate_limit.lua"));
+        script.setResultType(List.class);
+        this.slidingWindowScript = script;
+    }
+
+    /**
+     * Auth endpoints protected by the limiter, with their default limits per
+     * window.
+     */
+    public enum Action {
+        LOGIN("login", 10, 50, Duration.ofMinutes(15)),
+        FORGOT_PASSWORD("forgot-password", 3, 20, Duration.ofMinutes(15)),
+        RESEND_VERIFICATION("resend-verification", 3, 20, Duration.ofMinutes(15));
+
+        private final String key;
+        private final int accountLimit;
+        private final int ipLimit;
+        private final Duration window;
+
+        Action(String key, int accountLimit, int ipLimit, Duration window) {
+            this.key = key;
+            this.accountLimit = accountLimit;
+            this.ipLimit = ipLimit;
+            this.window = window;
+        }
+    }
+
+    /**
+     * Outcome of a rate limit check.
+     *
+     * @param allowed           whether the request may proceed
+     * @param retryAfterSeconds when rejected, how long until a slot frees up
+     * @param attemptId         id recorded in the Redis windows, or null if nothing was recorded
+     */
+    public record Decision(boolean allowed, long retryAfterSeconds, String attemptId) {
+        static Decision allow(String attemptId) {
+            return new Decision(true, 0, attemptId);
+        }
+
+        static Decision reject(long retryAfterSeconds) {
+            return new Decision(false, Math.max(1, retryAfterSeconds), null);
+        }
+    }
+
+    /**
+     * Checks and records an attempt for the given account and client IP.
+     *
+     * @param action   the endpoint being called
+     * @param account  the email the request targets
+     * @param clientIp the caller's IP address
+     * @return whether the attempt may proceed
+     */
+    public Decision tryAcquire(Action action, String account, String clientIp) {
+        String normalizedAccount = account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+
+        TokenBucket bucket = localBuckets.get(action.key + ":" + clientIp, key -> newLocalBucket(action));
+        long localWaitMs = bucket.tryConsume();
+        if (localWaitMs > 0) {
+            logger.warn("Local rate limit hit for {} from {}", action.key, clientIp);
+            return Decision.reject(TimeUnit.MILLISECONDS.toSeconds(localWaitMs) + 1);
+        }
+
+        String attemptId = UUID.randomUUID().toString();
+        try {
+            List<?> result = redisTemplate.execute(
+                    slidingWindowScript,
+                    List.of(accountKey(action, normalizedAccount), ipKey(action, clientIp)),
+                    String.valueOf(action.window.toMillis()),
+                    attemptId,
+                    String.valueOf(limit(action, "account-limit", action.accountLimit)),
+                    String.valueOf(limit(action, "ip-limit", action.ipLimit)));
+            if (result != null && ((Number) result.get(0)).longValue() == 0) {
+                long retryAfterMs = ((Number) result.get(1)).longValue();
+                logger.warn("Rate limit hit for {} on account {} from {}", action.key, normalizedAccount, clientIp);
+                return Decision.reject(TimeUnit.MILLISECONDS.toSeconds(retryAfterMs) + 1);
+            }
+            return Decision.allow(attemptId);
+        } catch (Exception e) {
+            logger.warn("Redis rate limit unavailable for {}, using node-local limits: {}", action.key, e.getMessage());
+            if (action == Action.LOGIN && loginAttemptService.isBlocked(normalizedAccount)) {
+                return Decision.reject(loginAttemptService.getRemainingLockoutTime(normalizedAccount));
+            }
+            return Decision.allow(null);
+        }
+    }
+
+    /**
+     * Records a successful login, which no longer counts against the account's
+     * window. It still counts against the client IP.
+     */
+    public void loginSucceeded(String account, Decision decision) {
+        String normalizedAccount = account.trim().toLowerCase(Locale.ROOT);
+        loginAttemptService.loginSucceeded(normalizedAccount);
+        if (decision.attemptId() == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(accountKey(Action.LOGIN, normalizedAccount), decision.attemptId());
+        } catch (Exception e) {
+            logger.debug("Could not release login attempt for {}: {}", normalizedAccount, e.getMessage());
+        }
+    }
+
+    /**
+     * Records a failed login in the heavy-hitter monitor and the node-local
+     * fallback counter. The Redis windows already counted the attempt when it
+     * was acquired.
+     */
+    public void loginFailed(String account, String clientIp) {
+        failedLoginMonitor.recordFailure(account, clientIp);
+        loginAttemptService.loginFailed(account.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private TokenBucket newLocalBucket(Action action) {
+        int capacity = limit(action, "local-burst", 20);
+        double refillPerSecond = environment.getProperty(
+                "security.rate-limit." + action.key + ".local-refill-per-second", Double.class, 2.0);
+        return new TokenBucket(capacity, refillPerSecond);
+    }
+
+    private int limit(Action action, String name, int defaultValue) {
+        return environment.getProperty("security.rate-limit." + action.key + "." + name, Integer.class, defaultValue);
+    }
+
+    private static String accountKey(Action action, String account) {
+        return REDIS_KEY_PREFIX + action.key + ":account:" + account;
+    }
+
+    private static String ipKey(Action action, String clientIp) {
+        return REDIS_KEY_PREFIX + action.key + ":ip:" + clientIp;
+    }
+
+    /**
+     * Classic token bucket refilled continuously at a fixed rate.
+     */
+    static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * Takes a token if one is available.
+         *
+         * @return 0 if a token was taken, otherwise milliseconds until one is available
+         */
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - tokens) / refillPerNano));
+        }
+    }
+}
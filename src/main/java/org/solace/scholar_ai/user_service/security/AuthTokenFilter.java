@@ -5,11 +5,12 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.solace.scholar_ai.user_service.service.auth.UserLoadingService;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -30,9 +31,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserLoadingService userLoadingService;
+    private final SessionRevocationRegistry sessionRevocationRegistry;
+    private final TokenRefreshCoalescer tokenRefreshCoalescer;
+    private final TokenBlacklistService tokenBlacklistService;
     private static final Logger log = LoggerFactory.getLogger(AuthTokenFilter.class);
-    private final RedisTemplate<String, String> redisTemplate;
+
+    // Build the principal from access token claims instead of loading the user on every request
+    @Value("${spring.app.jwt.self-contained:false}")
+    private boolean selfContainedTokens;
 
     /**
      * Performs the filtering logic for each request.
@@ -62,36 +70,33 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             String accessToken = parseJwt(request);
             log.info("Access token found: {}", accessToken != null ? "YES" : "NO");
             if (accessToken != null) {
-                // First check if the token is valid
-                boolean isValidToken = jwtUtils.validateJwtToken(accessToken);
-                log.info("Token validation result: {}", isValidToken);
+                // Repeat requests with the same token are served from the cache without re-verifying
+                Optional<VerifiedToken> verifiedToken = verifiedTokenCache.verify(accessToken);
+                log.info("Token validation result: {}", verifiedToken.isPresent());
 
-                if (isValidToken) {
+                if (verifiedToken.isPresent()) {
                     // Token is valid, proceed with normal authentication
-                    String username = jwtUtils.getUserNameFromJwtToken(accessToken);
+                    String username = verifiedToken.get().subject();
                     log.debug("Username: {}", username);
 
-                    // Check if refresh token still exists in Redis
-                    String redisKey = "refresh_token:" + username;
-                    try {
-                        Boolean hasKey = redisTemplate.hasKey(redisKey);
-                        if (hasKey == null || !hasKey) {
-                            log.warn(
-                                    "Access token permitted despite missing refresh token for user '{}' in Redis - token is still valid",
-                                    username);
-                            // Continue with authentication instead of failing
-                            // This allows the system to work even if Redis is down or refresh token expired
-                            // The JWT token itself is still valid and sufficient for authentication
-                        }
-                    } catch (Exception redisException) {
-                        log.warn(
-                                "Redis connection error for user '{}', proceeding with JWT-only authentication: {}",
-                                username,
-                                redisException.getMessage());
-                        // Continue with authentication if Redis is unavailable
+                    // Logout and password reset revoke earlier tokens; checked against a local view, no Redis call
+                    if (sessionRevocationRegistry.isRevoked(
+                            username, verifiedToken.get().issuedAt())) {
+                        log.info("Rejecting access token for user '{}' issued before session revocation", username);
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
+                    // Individually revoked tokens; only a local Bloom filter hit costs a Redis call
+                    if (tokenBlacklistService.isBlacklisted(accessToken, verifiedToken.get())) {
+                        log.info("Rejecting revoked access token for user '{}'", username);
+                        filterChain.doFilter(request, response);
+                        return;
                     }
 
-                    UserDetails userDetails = userLoadingService.loadUserByUsername(username);
+                    UserDetails userDetails =
+                            selfContainedTokens && verifiedToken.get().isSelfContained()
+                                    ? AuthenticatedUser.fromToken(verifiedToken.get())
+                                    : userLoadingService.loadUserByUsername(username);
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     log.debug("Roles from JWT: {}", userDetails.getAuthorities());
@@ -116,41 +121,25 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
                     if (refreshToken != null) {
                         try {
-                            // First validate the refresh token format and expiration
-                            if (!jwtUtils.validateJwtToken(refreshToken)) {
-                                log.warn("Refresh token is invalid or expired");
-                            } else {
-                                // Validate refresh token and get username
-                                String username = jwtUtils.getUserNameFromJwtToken(refreshToken);
-                                log.debug("Refresh token username: {}", username);
-
-                                // Check if refresh token exists in Redis
-                                String redisKey = "refresh_token:" + username;
-                                Boolean hasKey = redisTemplate.hasKey(redisKey);
-
-                                if (hasKey != null && hasKey) {
-                                    // Refresh token is valid, generate new access token
-                                    String newAccessToken = jwtUtils.generateAccessToken(username);
-                                    log.debug("Generated new access token for user: {}", username);
-
-                                    // Set the new access token in response header for frontend to use
-                                    response.setHeader("X-New-Access-Token", newAccessToken);
-
-                                    // Proceed with authentication using the username from refresh token
-                                    UserDetails userDetails = userLoadingService.loadUserByUsername(username);
-                                    UsernamePasswordAuthenticationToken authentication =
-                                            new UsernamePasswordAuthenticationToken(
-                                                    userDetails, null, userDetails.getAuthorities());
-                                    log.debug("Roles from refresh token: {}", userDetails.getAuthorities());
-
-                                    authentication.setDetails(
-                                            new WebAuthenticationDetailsSource().buildDetails(request));
-                                    SecurityContextHolder.getContext().setAuthentication(authentication);
-
-                                    log.info("Successfully refreshed token for user: {}", username);
-                                } else {
-                                    log.warn("Refresh token not found in Redis for user: {}", username);
-                                }
+                            // Concurrent requests with the same refresh token share one refresh
+                            Optional<TokenRefreshCoalescer.RefreshedAccess> refreshed =
+                                    tokenRefreshCoalescer.refresh(refreshToken);
+                            if (refreshed.isPresent()) {
+                                AuthenticatedUser userDetails = refreshed.get().principal();
+
+                                // Set the new access token in response header for frontend to use
+                                response.setHeader(
+                                        "X-New-Access-Token", refreshed.get().accessToken());
+
+                                UsernamePasswordAuthenticationToken authentication =
+                                        new UsernamePasswordAuthenticationToken(
+                                                userDetails, null, userDetails.getAuthorities());
+                                log.debug("Roles from refresh token: {}", userDetails.getAuthorities());
+
+                                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                                SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                                log.info("Successfully refreshed token for user: {}", userDetails.getUsername());
                             }
                         } catch (Exception refreshException) {
                             log.warn("Failed to refresh token: {}", refreshException.getMessage());
@@ -188,6 +177,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 || requestURI.equals("/api/v1/auth/reset-password")
                 || requestURI.startsWith("/api/v1/auth/google")
                 || requestURI.startsWith("/api/v1/auth/github")
+                || requestURI.equals("/.well-known/jwks.json")
                 || requestURI.startsWith("/health");
     }
 
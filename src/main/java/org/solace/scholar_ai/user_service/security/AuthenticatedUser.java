@@ -0,0 +1,52 @@
+package org.solace.scholar_ai.user_service.security;
+
+import java.util.Collection;
+import java.util.UUID;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Security principal for an authenticated user. Extends the standard Spring
+ * {@link User} with the user's id so it can be written into, and rebuilt from,
+ * self-contained access tokens, and records whether the user signs in through
+ * a social login provider.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final UUID userId;
+    private final boolean socialAccount;
+
+    public AuthenticatedUser(
+            UUID userId,
+            String username,
+            String password,
+            boolean emailConfirmed,
+            Collection<? extends GrantedAuthority> authorities) {
+        this(userId, username, password, emailConfirmed, false, authorities);
+    }
+
+    public AuthenticatedUser(
+            UUID userId,
+            String username,
+            String password,
+            boolean emailConfirmed,
+            boolean socialAccount,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, emailConfirmed, true, true, true, authorities);
+        this.userId = userId;
+        this.socialAccount = socialAccount;
+    }
+
+    /**
+     * Builds a principal from the claims of a verified self-contained access
+     * token, without consulting the database.
+     *
+     * @param token a verified token for which {@link VerifiedToken#isSelfContained()} is true
+     * @return the principal described by the token
+     */
+    public static AuthenticatedUser fromToken(VerifiedToken token) {
+        return new AuthenticatedUser(token.userId(), token.subject(), "", token.emailConfirmed(), token.authorities());
+    }
+}
@@ -0,0 +1,144 @@
+package org.solace.scholar_ai.user_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.exception.CustomException;
+import org.solace.scholar_ai.user_service.exception.ErrorCode;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} on a dedicated pool sized to the
+ * CPU count, so a login or signup storm cannot occupy every servlet thread.
+ *
+ * <p>The pool's queue is bounded. When it is full, or when a task waited in it
+ * longer than {@code maxWaitMs}, the call fails straight away with a
+ * {@code 503} {@link CustomException} instead of queuing more work. Queue
+ * depth, active workers, queue wait and rejections are published under
+ * {@code security.password_hashing.*}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    /**
+     * @param delegate      the encoder doing the actual hashing
+     * @param threads       worker threads; 0 or less means one per available processor
+     * @param queueCapacity hashing requests that may wait for a worker
+     * @param maxWaitMs     longest a request may wait in the queue before being shed
+     */
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        Gauge.builder("security.password_hashing.queue", executor, pool -> pool.getQueue()
+                        .size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("security.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing workers busy")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("security.password_hashing.wait")
+                .description("Time password hashing requests spent queued")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.password_hashing.rejected")
+                .description("Password hashing requests shed because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - submittedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxWaitNanos) {
+                    // The caller is still waiting, but the hash would finish too late to be useful
+                    throw new RejectedExecutionException("Queued for " + TimeUnit.NANOSECONDS.toMillis(waited) + "ms");
+                }
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded("queue full");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded("interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RejectedExecutionException) {
+                throw overloaded(cause.getMessage());
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private CustomException overloaded(String reason) {
+        rejected.increment();
+        logger.warn("Shedding password hashing request: {}", reason);
+        return new CustomException(
+                "Too many sign-in requests right now. Please retry shortly.",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ErrorCode.SERVICE_OVERLOADED);
+    }
+}
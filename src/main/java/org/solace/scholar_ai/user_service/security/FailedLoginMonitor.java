@@ -0,0 +1,161 @@
+package org.solace.scholar_ai.user_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.solace.scholar_ai.user_service.util.CountMinSketch;
+import org.solace.scholar_ai.user_service.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-memory summary of failed logins on this node, for spotting credential
+ * stuffing and password spraying.
+ *
+ * <p>Every failure is counted by target account, client IP and client subnet
+ * ({@code /24} for IPv4, {@code /64} for IPv6). Each dimension has a count-min
+ * sketch that estimates failures for any key and a Space-Saving summary of the
+ * heaviest offenders. Memory does not depend on how many distinct accounts or
+ * addresses are seen. Counts are halved periodically so the summary reflects
+ * recent traffic.
+ */
+@Component
+public class FailedLoginMonitor {
+
+    public enum Dimension {
+        ACCOUNT,
+        IP,
+        SUBNET
+    }
+
+    private final Map<Dimension, CountMinSketch> sketches = new EnumMap<>(Dimension.class);
+    private final Map<Dimension, SpaceSaving> heavyHitters = new EnumMap<>(Dimension.class);
+    private final Counter recordedFailures;
+
+    public FailedLoginMonitor(
+            @Value("${security.failed-login.sketch-width:8192}") int sketchWidth,
+            @Value("${security.failed-login.sketch-depth:4}") int sketchDepth,
+            @Value("${security.failed-login.top-k:64}") int topK,
+            MeterRegistry meterRegistry) {
+        for (Dimension dimension : Dimension.values()) {
+            sketches.put(dimension, new CountMinSketch(sketchWidth, sketchDepth));
+            heavyHitters.put(dimension, new SpaceSaving(topK));
+        }
+        this.recordedFailures = Counter.builder("security.failed_login.recorded")
+                .description("Failed logins recorded by the heavy-hitter monitor")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Estimated failures and guaranteed minimum for one key.
+     *
+     * @param key       account, IP or subnet
+     * @param estimate  count-min estimate, never below the true count
+     * @param tracked   Space-Saving count, or 0 if the key is not among the heavy hitters
+     * @param guaranteed failures the key is certain to have, from the Space-Saving summary
+     */
+    public record Offender(String key, long estimate, long tracked, long guaranteed) {}
+
+    public void recordFailure(String account, String clientIp) {
+        record(Dimension.ACCOUNT, normalizeAccount(account));
+        if (clientIp != null && !clientIp.isBlank()) {
+            record(Dimension.IP, clientIp);
+            record(Dimension.SUBNET, subnetOf(clientIp));
+        }
+        recordedFailures.increment();
+    }
+
+    public long estimate(Dimension dimension, String key) {
+        return sketches.get(dimension).estimate(normalize(dimension, key));
+    }
+
+    /**
+     * Failures the key is certain to have had since counts were last aged, or
+     * 0 if it is not among the heavy hitters. Unlike {@link #estimate}, this
+     * never overcounts, so it is safe to act on.
+     */
+    public long guaranteedFailures(Dimension dimension, String key) {
+        SpaceSaving.Entry entry = heavyHitters.get(dimension).get(normalize(dimension, key));
+        return entry != null ? entry.count() - entry.error() : 0;
+    }
+
+    /**
+     * @return up to {@code limit} of the heaviest offenders, highest count first
+     */
+    public List<Offender> topOffenders(Dimension dimension, int limit) {
+        CountMinSketch sketch = sketches.get(dimension);
+        return heavyHitters.get(dimension).top(limit).stream()
+                .map(entry -> new Offender(
+                        entry.key(), sketch.estimate(entry.key()), entry.count(), entry.count() - entry.error()))
+                .toList();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${security.failed-login.decay-interval-ms:900000}",
+            initialDelayString = "${security.failed-login.decay-interval-ms:900000}")
+    public void decay() {
+        for (Dimension dimension : Dimension.values()) {
+            sketches.get(dimension).halve();
+            heavyHitters.get(dimension).halve();
+        }
+    }
+
+    private void record(Dimension dimension, String key) {
+        sketches.get(dimension).add(key, 1);
+        heavyHitters.get(dimension).offer(key, 1);
+    }
+
+    private static String normalize(Dimension dimension, String key) {
+        return switch (dimension) {
+            case ACCOUNT -> normalizeAccount(key);
+            case IP -> key;
+            case SUBNET -> subnetOf(key);
+        };
+    }
+
+    private static String normalizeAccount(String account) {
+        return account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Maps an address to its subnet by text, without resolving it, since the
+     * value may have been resolved from an {@code X-Forwarded-For} header. Subnets are
+     * returned unchanged.
+     */
+    static String subnetOf(String ip) {
+        if (ip.indexOf('/') >= 0) {
+            return ip;
+        }
+        if (ip.indexOf(':') < 0) {
+            int lastDot = ip.lastIndexOf('.');
+            return lastDot > 0 ? ip.substring(0, lastDot) + ".0/24" : ip;
+        }
+        String[] halves = ip.toLowerCase(Locale.ROOT).split("::", -1);
+        String[] head = halves[0].isEmpty() ? new String[0] : halves[0].split(":");
+        String[] tail = halves.length > 1 && !halves[1].isEmpty() ? halves[1].split(":") : new String[0];
+        String[] groups = new String[8];
+        Arrays.fill(groups, "0");
+        System.arraycopy(head, 0, groups, 0, Math.min(head.length, 8));
+        if (tail.length <= 8) {
+            System.arraycopy(tail, 0, groups, 8 - tail.length, tail.length);
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            prefix.append(Integer.toHexString(parseGroup(groups[i]))).append(':');
+        }
+        return prefix.append(":/64").toString();
+    }
+
+    private static int parseGroup(String group) {
+        try {
+            return Integer.parseInt(group, 16);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -1,56 +1,274 @@
 package org.solace.scholar_ai.user_service.security;
 
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
-import java.util.Collections;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
 
+/**
+ * Verifies Google ID tokens locally against a cached copy of Google's signing
+ * keys.
+ *
+ * <p>The JWKS document is loaded at startup and kept until shortly before its
+ * {@code Cache-Control} max-age runs out, when it is refreshed in the
+ * background on the outbound HTTP executor. An expired key set keeps being
+ * used while a refresh is in flight. A token signed with an unknown
+ * {@code kid} triggers a refresh and waits a bounded time for it, so logins
+ * right after a failed startup fetch or a key rotation still succeed; refreshes
+ * are throttled, so made-up key ids cannot make every request wait. Parsed
+ * public keys are cached per {@code kid}.
+ *
+ * <p>Setting {@code spring.google.certs-location} pins the key set to a local
+ * JWKS file, which is never refreshed, for tests and offline runs.
+ */
 @Component
 public class GoogleVerifierUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(GoogleVerifierUtil.class);
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration MIN_REFETCH_INTERVAL = Duration.ofSeconds(30);
+
+    private final RestTemplate restTemplate;
+    private final ResourceLoader resourceLoader;
+    private final Executor refreshExecutor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
 
     @Value("${spring.google.client-id}")
     private String clientId;
 
-    private GoogleIdTokenVerifier verifier;
+    @Value("${spring.google.certs-url:https://www.googleapis.com/oauth2/v3/certs}")
+    private String certsUrl;
 
-    public GoogleVerifierUtil(GoogleIdTokenVerifier verifier) {
-        this.verifier = verifier;
-    }
+    @Value("${spring.google.certs-location:}")
+    private String certsLocation;
+
+    @Value("${spring.google.certs-refresh-ahead-ms:600000}")
+    private long refreshAheadMs;
+
+    @Value("${spring.google.clock-skew-seconds:60}")
+    private long clockSkewSeconds;
+
+    @Value("${spring.google.unknown-kid-wait-ms:2000}")
+    private long unknownKidWaitMs;
+
+    private JwtParser parser;
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile Instant expiresAt = Instant.EPOCH;
+    private volatile Instant lastAttempt = Instant.EPOCH;
+    private volatile CompletableFuture<Void> pendingRefresh = CompletableFuture.completedFuture(null);
 
-    public GoogleVerifierUtil() {
-        // Default constructor for Spring
+    public GoogleVerifierUtil(
+            RestTemplate restTemplate,
+            ResourceLoader resourceLoader,
+            @Qualifier("outboundHttpExecutor") Executor refreshExecutor) {
+        this.restTemplate = restTemplate;
+        this.resourceLoader = resourceLoader;
+        this.refreshExecutor = refreshExecutor;
     }
 
+    /**
+     * Claims of a verified Google ID token.
+     *
+     * @param subject       Google's stable user id
+     * @param email         the account email, may be null
+     * @param emailVerified whether Google has verified the email
+     * @param name          display name, may be null
+     */
+    public record GoogleIdentity(String subject, String email, boolean emailVerified, String name) {}
+
     @PostConstruct
-    public void init() throws Exception {
-        if (verifier == null) {
-            verifier = buildGoogleVerifier();
-        }
-    }
-    
-    private GoogleIdTokenVerifier buildGoogleVerifier() throws Exception {
-        return new GoogleIdTokenVerifier.Builder(
-                        GoogleNetHttpTransport.newTrustedTransport(), 
-                        JacksonFactory.getDefaultInstance())
-                .setAudience(Collections.singletonList(clientId))
+    public void init() throws IOException {
+        parser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .requireAudience(clientId)
+                .clockSkewSeconds(clockSkewSeconds)
                 .build();
+
+        if (!certsLocation.isBlank()) {
+            Resource resource = resourceLoader.getResource(certsLocation);
+            try (InputStream in = resource.getInputStream()) {
+                keys = parseKeys(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            expiresAt = Instant.MAX;
+            logger.info("Google ID tokens verified against pinned keys from {} ({} keys)", certsLocation, keys.size());
+            return;
+        }
+
+        lastAttempt = Instant.now();
+        try {
+            fetchKeys();
+        } catch (Exception e) {
+            // Google logins fetch the keys on demand until this succeeds
+            logger.warn("Failed to load Google signing keys at startup, retrying on first use: {}", e.getMessage());
+        }
     }
 
-    public GoogleIdToken.Payload verify(String idTokenString) {
+    /**
+     * @return the token's identity, or null if the token is invalid, expired,
+     *         issued for another client, or signed with a key not yet loaded
+     */
+    public GoogleIdentity verify(String idTokenString) {
         try {
-            GoogleIdToken idToken = verifier.verify(idTokenString);
-            return idToken != null ? idToken.getPayload() : null;
+            Claims claims = parser.parseSignedClaims(idTokenString).getPayload();
+            if (!ISSUERS.contains(claims.getIssuer())) {
+                logger.warn("Rejected Google ID token from issuer {}", claims.getIssuer());
+                return null;
+            }
+            return new GoogleIdentity(
+                    claims.getSubject(),
+                    claims.get("email", String.class),
+                    Boolean.TRUE.equals(claims.get("email_verified", Boolean.class)),
+                    claims.get("name", String.class));
         } catch (Exception e) {
-            logger.error("Failed to verify Google ID token", e);
+            logger.error("Failed to verify Google ID token: {}", e.getMessage());
             return null;
         }
     }
+
+    /**
+     * Refreshes the key set in the background once it is within the
+     * refresh-ahead window of expiring.
+     */
+    @Scheduled(
+            fixedDelayString = "${spring.google.certs-refresh-check-ms:60000}",
+            initialDelayString = "${spring.google.certs-refresh-initial-delay-ms:0}")
+    public void refreshIfStale() {
+        if (Instant.now().plusMillis(refreshAheadMs).isAfter(expiresAt)) {
+            refreshAsync();
+        }
+    }
+
+    private Key locateKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        PublicKey key = kid != null ? keys.get(kid) : null;
+        if (key == null && kid != null) {
+            // Google may have rotated in a key we have not fetched yet
+            awaitRefresh(refreshAsync());
+            key = keys.get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown Google key id: " + kid);
+        }
+        if (Instant.now().isAfter(expiresAt)) {
+            refreshAsync();
+        }
+        return key;
+    }
+
+    /**
+     * @return the refresh started by this call or already in flight, or a
+     *         completed future if refreshes are pinned or throttled
+     */
+    private CompletableFuture<Void> refreshAsync() {
+        if (!certsLocation.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (lastAttempt.plus(MIN_REFETCH_INTERVAL).isAfter(Instant.now()) || !refreshing.compareAndSet(false, true)) {
+            return pendingRefresh;
+        }
+        lastAttempt = Instant.now();
+        CompletableFuture<Void> refresh = new CompletableFuture<>();
+        pendingRefresh = refresh;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    fetchKeys();
+                } catch (Exception e) {
+                    logger.warn(
+                            "Failed to refresh Google signing keys, keeping {} cached keys: {}",
+                            keys.size(),
+                            e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                    refresh.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            refresh.complete(null);
+            logger.warn("Could not schedule a Google signing key refresh: {}", e.getMessage());
+        }
+        return refresh;
+    }
+
+    private void awaitRefresh(CompletableFuture<Void> refresh) {
+        try {
+            refresh.get(unknownKidWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Google signing key refresh did not finish in time: {}", e.getMessage());
+        }
+    }
+
+    private void fetchKeys() {
+        ResponseEntity<String> response = restTemplate.getForEntity(certsUrl, String.class);
+        if (response.getBody() == null) {
+            throw new IllegalStateException("Empty response from " + certsUrl);
+        }
+        Map<String, PublicKey> fetched = parseKeys(response.getBody());
+        Duration maxAge = maxAge(response.getHeaders());
+        keys = fetched;
+        expiresAt = Instant.now().plus(maxAge);
+        logger.info("Loaded {} Google signing keys, valid for {}s", fetched.size(), maxAge.toSeconds());
+    }
+
+    private Map<String, PublicKey> parseKeys(String json) {
+        JwkSet jwkSet = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> parsed = new HashMap<>(keys);
+        parsed.keySet().retainAll(jwkSet.getKeys().stream().map(Jwk::getId).toList());
+        for (Jwk<?> jwk : jwkSet.getKeys()) {
+            // Keys already parsed for a kid are reused; a kid always names the same key
+            if (jwk.getId() != null && !parsed.containsKey(jwk.getId()) && jwk.toKey() instanceof PublicKey key) {
+                parsed.put(jwk.getId(), key);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+
+    private static Duration maxAge(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return DEFAULT_MAX_AGE;
+    }
 }
@@ -0,0 +1,383 @@
+package org.solace.scholar_ai.user_service.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the keys used to sign and verify JWTs.
+ *
+ * <p>With the default {@code HS256} algorithm the ring contains only the shared
+ * HMAC secret. With {@code ES256} or {@code EdDSA} it holds a set of key pairs
+ * identified by {@code kid}, shared between instances through Redis and rotated
+ * on a schedule. A new key is published in the JWKS document for one JWKS cache
+ * lifetime before it is used for signing, and retired keys stay available for
+ * verification until every token they signed has expired.
+ *
+ * <p>Private keys are stored in Redis encrypted with AES-GCM, under
+ * {@code keyring-encryption-key} or, when that is not set, a key derived from
+ * the shared JWT secret. Tokens without a {@code kid}, signed with the shared
+ * secret before the switch to a key ring, are rejected unless
+ * {@code accept-legacy-hmac} is enabled for the migration.
+ */
+@Component
+public class JwtKeyRing {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+    private static final String REDIS_KEYRING_KEY = "jwt_signing_keys";
+    private static final String REDIS_ROTATION_LOCK_KEY = "jwt_signing_keys:rotation_lock";
+    private static final Duration ROTATION_LOCK_TTL = Duration.ofMinutes(1);
+    private static final Duration MIN_RELOAD_INTERVAL = Duration.ofSeconds(10);
+    private static final String HS256 = "HS256";
+    private static final String ES256 = "ES256";
+    private static final String EDDSA = "EdDSA";
+    private static final String KEY_CIPHER = "AES/GCM/NoPadding";
+    private static final int KEY_CIPHER_IV_BYTES = 12;
+    private static final int KEY_CIPHER_TAG_BITS = 128;
+    private static final byte[] KEY_DERIVATION_LABEL = "jwt-keyring-encryption".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${spring.app.jwtSecret}")
+    private String jwtSecret;
+
+    @Value("${spring.app.jwt.algorithm:HS256}")
+    private String algorithm;
+
+    // Enable only while migrating from HS256, for at most one refresh token lifetime
+    @Value("${spring.app.jwt.accept-legacy-hmac:false}")
+    private boolean acceptLegacyHmac;
+
+    @Value("${spring.app.jwt.keyring-encryption-key:}")
+    private String keyringEncryptionKey;
+
+    @Value("${spring.app.jwt.key-rotation-period-ms:604800000}")
+    private long rotationPeriodMs;
+
+    @Value("${spring.app.jwt.jwks-max-age-ms:600000}")
+    private long jwksMaxAgeMs;
+
+    @Value("${spring.app.refresh.expiration-ms}")
+    private long refreshTokenValidityMs;
+
+    private SecretKey hmacKey;
+    private SecretKey storageKey;
+    private volatile Map<String, KeyEntry> keys = Map.of();
+    private volatile KeyEntry signingKey;
+    private volatile Instant lastReload = Instant.EPOCH;
+
+    public JwtKeyRing(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A key that can sign or verify tokens.
+     *
+     * @param kid       the key id placed in the JWS header, or null for the shared HMAC key
+     * @param createdAt when the key was generated
+     * @param signingKey the private (or secret) key used to sign
+     * @param verificationKey the public (or secret) key used to verify
+     * @param jwk       the key pair as a JWK, or null for the shared HMAC key
+     */
+    public record KeyEntry(
+            String kid, Instant createdAt, Key signingKey, Key verificationKey, PrivateJwk<?, ?, ?> jwk) {}
+
+    @PostConstruct
+    public void init() {
+        hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        if (isHmac()) {
+            signingKey = new KeyEntry(null, Instant.EPOCH, hmacKey, hmacKey, null);
+            logger.info("JWT signing with shared {} secret", HS256);
+            return;
+        }
+        if (!ES256.equals(algorithm) && !EDDSA.equals(algorithm)) {
+            throw new IllegalStateException("Unsupported JWT signing algorithm: " + algorithm);
+        }
+        storageKey = storageKey();
+        if (acceptLegacyHmac) {
+            logger.warn("Accepting JWTs without a key id signed with the shared {} secret", HS256);
+        }
+        refresh();
+        logger.info("JWT signing with {} key ring ({} keys, signing kid {})", algorithm, keys.size(), signingKey.kid());
+    }
+
+    public KeyEntry currentSigningKey() {
+        return signingKey;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public SecureDigestAlgorithm signatureAlgorithm() {
+        return switch (algorithm) {
+            case ES256 -> Jwts.SIG.ES256;
+            case EDDSA -> Jwts.SIG.EdDSA;
+            default -> Jwts.SIG.HS256;
+        };
+    }
+
+    /**
+     * Public keys to publish in the JWKS document, newest first. Empty when
+     * tokens are signed with the shared HMAC secret.
+     */
+    public List<PublicJwk<?>> publicJwks() {
+        return keys.values().stream()
+                .sorted(Comparator.comparing(KeyEntry::createdAt).reversed())
+                .<PublicJwk<?>>map(entry -> entry.jwk().toPublicJwk())
+                .toList();
+    }
+
+    public Duration jwksMaxAge() {
+        return Duration.ofMillis(jwksMaxAgeMs);
+    }
+
+    /**
+     * Resolves the verification key for a token header. Used as the key locator
+     * of the shared {@link io.jsonwebtoken.JwtParser}.
+     *
+     * @param header the JWS header of the token being parsed
+     * @return the key to verify the token signature with
+     */
+    public Key locateVerificationKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            if (isHmac() || acceptLegacyHmac) {
+                return hmacKey;
+            }
+            throw new SignatureException("JWT has no key id");
+        }
+
+        KeyEntry entry = keys.get(kid);
+        if (entry == null && !isHmac() && lastReload.plus(MIN_RELOAD_INTERVAL).isBefore(Instant.now())) {
+            // Another instance may have rotated in a key we have not loaded yet
+            refresh();
+            entry = keys.get(kid);
+        }
+        if (entry == null) {
+            throw new SignatureException("Unknown JWT key id: " + kid);
+        }
+        return entry.verificationKey();
+    }
+
+    /**
+     * Reloads the shared key ring from Redis, generating a new key when the
+     * newest one is older than the rotation period and dropping keys whose
+     * tokens can no longer be valid.
+     */
+    @Scheduled(
+            fixedDelayString = "${spring.app.jwt.key-refresh-interval-ms:300000}",
+            initialDelayString = "${spring.app.jwt.key-refresh-interval-ms:300000}")
+    public void refresh() {
+        if (isHmac() || !refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            Map<String, KeyEntry> merged = new HashMap<>(keys);
+            try {
+                syncWithRedis(merged, now);
+            } catch (Exception e) {
+                logger.warn("Failed to sync JWT key ring with Redis, using local keys: {}", e.getMessage());
+                if (merged.isEmpty()) {
+                    KeyEntry generated = generateKey(now);
+                    merged.put(generated.kid(), generated);
+                }
+            }
+            keys = Map.copyOf(merged);
+            signingKey = selectSigningKey(merged, now);
+            lastReload = now;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void syncWithRedis(Map<String, KeyEntry> merged, Instant now) throws Exception {
+        Map<Object, Object> stored = redisTemplate.opsForHash().entries(REDIS_KEYRING_KEY);
+        for (Map.Entry<Object, Object> field : stored.entrySet()) {
+            String kid = (String) field.getKey();
+            if (!merged.containsKey(kid)) {
+                JsonNode node = objectMapper.readTree((String) field.getValue());
+                KeyEntry entry = deserialize(kid, node);
+                merged.put(kid, entry);
+                if (!node.has("encryptedJwk")) {
+                    // Written before keys were encrypted at rest
+                    redisTemplate.opsForHash().put(REDIS_KEYRING_KEY, kid, serialize(entry));
+                }
+            }
+        }
+        // Publish keys generated locally while Redis was unavailable
+        for (KeyEntry entry : merged.values()) {
+            if (!stored.containsKey(entry.kid())) {
+                redisTemplate.opsForHash().putIfAbsent(REDIS_KEYRING_KEY, entry.kid(), serialize(entry));
+            }
+        }
+
+        KeyEntry newest = merged.values().stream()
+                .max(Comparator.comparing(KeyEntry::createdAt))
+                .orElse(null);
+        boolean rotationDue = newest == null
+                || !newest.createdAt().plusMillis(rotationPeriodMs).isAfter(now);
+        if (rotationDue && acquireRotationLock()) {
+            KeyEntry generated = generateKey(now);
+            redisTemplate.opsForHash().put(REDIS_KEYRING_KEY, generated.kid(), serialize(generated));
+            merged.put(generated.kid(), generated);
+            logger.info("Rotated JWT signing key, new kid {}", generated.kid());
+        }
+
+        Duration retention = Duration.ofMillis(rotationPeriodMs + jwksMaxAgeMs + refreshTokenValidityMs);
+        KeyEntry latest = merged.values().stream()
+                .max(Comparator.comparing(KeyEntry::createdAt))
+                .orElse(null);
+        merged.values().removeIf(entry -> {
+            boolean retired =
+                    entry != latest && entry.createdAt().plus(retention).isBefore(now);
+            if (retired) {
+                redisTemplate.opsForHash().delete(REDIS_KEYRING_KEY, entry.kid());
+                logger.info("Retired JWT signing key {}", entry.kid());
+            }
+            return retired;
+        });
+    }
+
+    private boolean acquireRotationLock() {
+        Boolean acquired = redisTemplate
+                .opsForValue()
+                .setIfAbsent(REDIS_ROTATION_LOCK_KEY, UUID.randomUUID().toString(), ROTATION_LOCK_TTL);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    /**
+     * Picks the newest key that has been published for at least one JWKS cache
+     * lifetime, so downstream services already know it. Falls back to the newest
+     * key when none qualifies (for example right after the first key is created).
+     */
+    private KeyEntry selectSigningKey(Map<String, KeyEntry> candidates, Instant now) {
+        Instant publishedBefore = now.minusMillis(jwksMaxAgeMs);
+        List<KeyEntry> newestFirst = candidates.values().stream()
+                .sorted(Comparator.comparing(KeyEntry::createdAt).reversed())
+                .toList();
+        return newestFirst.stream()
+                .filter(entry -> !entry.createdAt().isAfter(publishedBefore))
+                .findFirst()
+                .orElse(newestFirst.get(0));
+    }
+
+    private KeyEntry generateKey(Instant now) {
+        KeyPair keyPair = EDDSA.equals(algorithm)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : Jwts.SIG.ES256.keyPair().build();
+        PrivateJwk<?, ?, ?> jwk = Jwks.builder()
+                .keyPair(keyPair)
+                .algorithm(algorithm)
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+        return toEntry(jwk, now);
+    }
+
+    private KeyEntry toEntry(PrivateJwk<?, ?, ?> jwk, Instant createdAt) {
+        return new KeyEntry(
+                jwk.getId(), createdAt, jwk.toKey(), jwk.toPublicJwk().toKey(), jwk);
+    }
+
+    private String serialize(KeyEntry entry) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+                "createdAt",
+                entry.createdAt().toEpochMilli(),
+                "encryptedJwk",
+                encrypt(entry.kid(), Jwks.UNSAFE_JSON(entry.jwk()))));
+    }
+
+    private KeyEntry deserialize(String kid, JsonNode node) throws Exception {
+        String json = node.has("encryptedJwk")
+                ? decrypt(kid, node.get("encryptedJwk").asText())
+                : node.get("jwk").asText();
+        Jwk<?> jwk = Jwks.parser().build().parse(json);
+        if (!(jwk instanceof PrivateJwk<?, ?, ?> privateJwk) || !kid.equals(jwk.getId())) {
+            throw new IllegalStateException("Stored JWT key " + kid + " is not a matching private key");
+        }
+        return toEntry(privateJwk, Instant.ofEpochMilli(node.get("createdAt").asLong()));
+    }
+
+    // The kid is bound as associated data, so an entry cannot be moved to another field
+    private String encrypt(String kid, String plaintext) throws Exception {
+        byte[] iv = new byte[KEY_CIPHER_IV_BYTES];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(KEY_CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, storageKey, new GCMParameterSpec(KEY_CIPHER_TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] ciphertext = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder()
+                .encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length)
+                        .put(iv)
+                        .put(ciphertext)
+                        .array());
+    }
+
+    private String decrypt(String kid, String encoded) throws Exception {
+        byte[] data = Base64.getDecoder().decode(encoded);
+        Cipher cipher = Cipher.getInstance(KEY_CIPHER);
+        cipher.init(
+                Cipher.DECRYPT_MODE,
+                storageKey,
+                new GCMParameterSpec(KEY_CIPHER_TAG_BITS, data, 0, KEY_CIPHER_IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        byte[] plaintext = cipher.doFinal(data, KEY_CIPHER_IV_BYTES, data.length - KEY_CIPHER_IV_BYTES);
+        return new String(plaintext, StandardCharsets.UTF_8);
+    }
+
+    private SecretKey storageKey() {
+        if (!keyringEncryptionKey.isBlank()) {
+            return new SecretKeySpec(Decoders.BASE64.decode(keyringEncryptionKey), "AES");
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hmacKey);
+            return new SecretKeySpec(mac.doFinal(KEY_DERIVATION_LABEL), "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive the JWT key ring encryption key", e);
+        }
+    }
+
+    private boolean isHmac() {
+        return HS256.equals(algorithm);
+    }
+}
@@ -1,16 +1,20 @@
 package org.solace.scholar_ai.user_service.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import java.util.Date;
-import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.model.User;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -19,19 +23,30 @@ public class JwtUtils {
     private static final String BEARER_PREFIX = "Bearer ";
     private static final int BEARER_PREFIX_LENGTH = 7;
 
-    @Value("${spring.app.jwtSecret}")
-    private String jwtSecret;
-
     @Value("${spring.app.access.expiration-ms}")
     private long accessTokenValidityMs;
 
     @Value("${spring.app.refresh.expiration-ms}")
     private long refreshTokenValidityMs;
 
+    private final JwtKeyRing keyRing;
+
+    // Built once at startup; JwtParser is immutable and safe to share across request threads
+    private JwtParser jwtParser;
+
+    public JwtUtils(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parser().keyLocator(keyRing::locateVerificationKey).build();
+    }
+
     public String getJwtFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         logger.debug("Authorization Header: {}", bearerToken);
-        
+
         if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
             return bearerToken.substring(BEARER_PREFIX_LENGTH);
         }
@@ -42,43 +57,74 @@ public class JwtUtils {
         return generateToken(username, accessTokenValidityMs);
     }
 
+    /**
+     * Generates a self-contained access token that also carries the user id,
+     * role and email confirmation state, so it can be authenticated without
+     * loading the user.
+     */
+    public String generateAccessToken(User user) {
+        return generateAccessToken(
+                user.getEmail(), user.getId(), List.of("ROLE_" + user.getRole().name()), user.isEmailConfirmed());
+    }
+
+    /**
+     * Generates a self-contained access token for an already loaded principal.
+     */
+    public String generateAccessToken(AuthenticatedUser principal) {
+        List<String> roles = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return generateAccessToken(principal.getUsername(), principal.getUserId(), roles, principal.isEnabled());
+    }
+
+    private String generateAccessToken(String username, UUID userId, List<String> roles, boolean emailConfirmed) {
+        return generateToken(
+                username,
+                accessTokenValidityMs,
+                Map.of(
+                        VerifiedToken.USER_ID_CLAIM, userId.toString(),
+                        VerifiedToken.ROLES_CLAIM, roles,
+                        VerifiedToken.EMAIL_CONFIRMED_CLAIM, emailConfirmed));
+    }
+
     public String generateRefreshToken(String username) {
         return generateToken(username, refreshTokenValidityMs);
     }
 
     public String generateToken(String username, long expirationMillis) {
+        return generateToken(username, expirationMillis, Map.of());
+    }
+
+    private String generateToken(String username, long expirationMillis, Map<String, ?> claims) {
         Instant now = Instant.now();
         Instant expiry = now.plusMillis(expirationMillis);
+        JwtKeyRing.KeyEntry key = keyRing.currentSigningKey();
 
         return Jwts.builder()
+                .header()
+                .keyId(key.kid())
+                .and()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
+                .claims(claims)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiry))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(key.signingKey(), keyRing.signatureAlgorithm())
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the signature and expiry of a token and extracts its claims in a
+     * single parse.
+     *
+     * @param authToken the compact JWT string
+     * @return the verified token, or empty if the token is invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String authToken) {
         try {
             logger.debug("Validating JWT token: {}", authToken);
-            Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(authToken).getPayload();
+            return Optional.of(VerifiedToken.from(claims));
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -90,6 +136,14 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return verify(authToken).isPresent();
     }
 }
@@ -1,13 +1,17 @@
 package org.solace.scholar_ai.user_service.security;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class LoginAttemptService {
 
@@ -22,40 +26,78 @@ public class LoginAttemptService {
 	@Value("${security.login.lockout-duration-minutes:15}")
 	private int lockoutDurationMinutes;
 
-	private final Map<String, Integer> attemptsCache = new ConcurrentHashMap<>();
-	private final Map<String, Long> lockoutCache = new ConcurrentHashMap<>();
+	@Value("${security.login.max-tracked-keys:100000}")
+	private int maxTrackedKeys;
+
+	private final TimingWheel timingWheel;
+	private final FailedLoginMonitor failedLoginMonitor;
+
+	// Entries are removed by the timing wheel when they expire, so keys from
+	// credential-stuffing traffic do not accumulate
+	private final Map<String, Attempts> attemptsCache = new ConcurrentHashMap<>();
+	private final Map<String, Lockout> lockoutCache = new ConcurrentHashMap<>();
 
 	public void loginSucceeded(String key) {
-		attemptsCache.remove(key);
-		lockoutCache.remove(key);
+		Attempts attempts = attemptsCache.remove(key);
+		if (attempts != null) {
+			attempts.expiry.cancel();
+		}
+		Lockout lockout = lockoutCache.remove(key);
+		if (lockout != null) {
+			lockout.expiry.cancel();
+		}
 	}
 
 	public void loginFailed(String key) {
-		int attempts = attemptsCache.getOrDefault(key, 0) + 1;
-		attemptsCache.put(key, attempts);
+		if (attemptsCache.size() >= maxTrackedKeys && !attemptsCache.containsKey(key)) {
+			// Under a spray of distinct keys, stop allocating per-key counters and only
+			// lock keys the heavy-hitter summary is certain have failed often enough
+			long guaranteed = failedLoginMonitor.guaranteedFailures(FailedLoginMonitor.Dimension.ACCOUNT, key);
+			if (guaranteed >= maxAttempts && !lockoutCache.containsKey(key)) {
+				lockAccount(key, (int) guaranteed);
+			}
+			return;
+		}
+
+		// Failures are counted within a window of one lockout duration from the first one
+		Attempts entry = attemptsCache.computeIfAbsent(key, k -> {
+			Attempts created = new Attempts();
+			created.expiry = timingWheel.schedule(lockoutDuration(), () -> attemptsCache.remove(k, created));
+			return created;
+		});
+		int attempts = entry.count.incrementAndGet();
 
 		if (attempts >= maxAttempts) {
 			lockAccount(key, attempts);
 		}
 	}
-	
+
 	private void lockAccount(String key, int attempts) {
 		long lockoutUntil = Instant.now()
 				.plusSeconds((long) lockoutDurationMinutes * SECONDS_PER_MINUTE)
 				.toEpochMilli();
-		lockoutCache.put(key, lockoutUntil);
+		Lockout lockout = new Lockout(lockoutUntil);
+		lockout.expiry = timingWheel.schedule(lockoutDuration(), () -> {
+			if (lockoutCache.remove(key, lockout)) {
+				attemptsCache.remove(key);
+			}
+		});
+		Lockout previous = lockoutCache.put(key, lockout);
+		if (previous != null) {
+			previous.expiry.cancel();
+		}
 		log.warn("Account locked due to {} failed login attempts: {}", attempts, key);
 	}
 
 	public boolean isBlocked(String key) {
-		Long lockoutUntil = lockoutCache.get(key);
-		if (lockoutUntil == null) {
+		Lockout lockout = lockoutCache.get(key);
+		if (lockout == null) {
 			return false;
 		}
 
-		if (Instant.now().toEpochMilli() > lockoutUntil) {
-			lockoutCache.remove(key);
-			attemptsCache.remove(key);
+		// The wheel expires with tick granularity; be exact for the caller
+		if (Instant.now().toEpochMilli() > lockout.until) {
+			loginSucceeded(key);
 			return false;
 		}
 
@@ -63,15 +105,34 @@ public class LoginAttemptService {
 	}
 
 	public int getAttempts(String key) {
-		return attemptsCache.getOrDefault(key, 0);
+		Attempts attempts = attemptsCache.get(key);
+		return attempts != null ? attempts.count.get() : 0;
 	}
 
 	public long getRemainingLockoutTime(String key) {
-		Long lockoutUntil = lockoutCache.get(key);
-		if (lockoutUntil == null) {
+		Lockout lockout = lockoutCache.get(key);
+		if (lockout == null) {
 			return 0;
 		}
-		long remaining = lockoutUntil - Instant.now().toEpochMilli();
+		long remaining = lockout.until - Instant.now().toEpochMilli();
 		return Math.max(0, remaining / MILLIS_PER_SECOND);
 	}
+
+	private Duration lockoutDuration() {
+		return Duration.ofMinutes(lockoutDurationMinutes);
+	}
+
+	private static final class Attempts {
+		private final AtomicInteger count = new AtomicInteger();
+		private volatile TimingWheel.Timeout expiry;
+	}
+
+	private static final class Lockout {
+		private final long until;
+		private volatile TimingWheel.Timeout expiry;
+
+		private Lockout(long until) {
+			this.until = until;
+		}
+	}
 }
@@ -0,0 +1,142 @@
+package org.solace.scholar_ai.user_service.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Builds the application's {@link DelegatingPasswordEncoder}, picking the hash
+ * cost by benchmarking this machine at startup.
+ *
+ * <p>The cost (bcrypt strength or Argon2id iterations) is raised until one hash
+ * on one core would exceed the configured target latency. Since hashing runs on
+ * one worker per core, the target also fixes login throughput at roughly
+ * {@code cores / target}. A fixed cost can be configured instead, which keeps
+ * every instance of a cluster on the same parameters.
+ *
+ * <p>New hashes are stored with an {@code {id}} prefix. Hashes without one are
+ * legacy bcrypt hashes and still verify. {@link PasswordEncoder#upgradeEncoding}
+ * reports hashes that use another algorithm or a lower cost, so callers can
+ * rehash them after a successful login.
+ */
+public class PasswordHashingCalibrator {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingCalibrator.class);
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2ID = "argon2id";
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 16;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private final long targetNanos;
+    private final int argon2MemoryKb;
+
+    /**
+     * @param target         latency budget for one hash on one core
+     * @param argon2MemoryKb memory cost for Argon2id, in KiB
+     */
+    public PasswordHashingCalibrator(Duration target, int argon2MemoryKb) {
+        this.targetNanos = target.toNanos();
+        this.argon2MemoryKb = argon2MemoryKb;
+    }
+
+    /**
+     * @param algorithm  {@value #BCRYPT} or {@value #ARGON2ID}, used for new hashes
+     * @param fixedCost  bcrypt strength or Argon2id iterations; 0 or less to calibrate
+     */
+    public PasswordEncoder createEncoder(String algorithm, int fixedCost) {
+        String idForEncode = algorithm.toLowerCase(Locale.ROOT);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        switch (idForEncode) {
+            case BCRYPT -> {
+                int strength = fixedCost > 0 ? fixedCost : bcryptStrength();
+                encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+                encoders.put(ARGON2ID, argon2(MIN_ARGON2_ITERATIONS));
+                logger.info("Hashing new passwords with bcrypt, strength {}", strength);
+            }
+            case ARGON2ID -> {
+                int iterations = fixedCost > 0 ? fixedCost : argon2Iterations();
+                encoders.put(ARGON2ID, argon2(iterations));
+                encoders.put(BCRYPT, new BCryptPasswordEncoder());
+                logger.info("Hashing new passwords with Argon2id, {} KiB, {} iterations", argon2MemoryKb, iterations);
+            }
+            default -> throw new IllegalArgumentException("Unsupported password hashing algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before prefixes were introduced are plain bcrypt
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
+    }
+
+    int bcryptStrength() {
+        return calibrate(BCRYPT, MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH, BCryptPasswordEncoder::new, cost -> 2.0);
+    }
+
+    int argon2Iterations() {
+        return calibrate(
+                ARGON2ID,
+                MIN_ARGON2_ITERATIONS,
+                MAX_ARGON2_ITERATIONS,
+                this::argon2,
+                iterations -> (iterations + 1.0) / iterations);
+    }
+
+    /**
+     * Raises the cost from {@code min} while the next step is predicted to stay
+     * within the target, given how much slower each step is than the last.
+     */
+    private int calibrate(
+            String algorithm,
+            int min,
+            int max,
+            IntFunction<PasswordEncoder> encoderForCost,
+            IntToDoubleFunction nextStepFactor) {
+        int cost = min;
+        long elapsed = time(encoderForCost.apply(cost));
+        while (cost < max && elapsed * nextStepFactor.applyAsDouble(cost) <= targetNanos) {
+            cost++;
+            elapsed = time(encoderForCost.apply(cost));
+        }
+        logger.info(
+                "Calibrated {} cost {}: {} ms per hash against a {} ms target",
+                algorithm,
+                cost,
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                TimeUnit.NANOSECONDS.toMillis(targetNanos));
+        return cost;
+    }
+
+    // Best of two runs, after a warm-up run, to keep JIT and allocation noise out
+    private static long time(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(
+                ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, argon2MemoryKb, iterations);
+    }
+}
@@ -0,0 +1,180 @@
+package org.solace.scholar_ai.user_service.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.config.RequestRateLimitProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Token-bucket request throttling per route, applied before authentication.
+ *
+ * <p>Rules come from {@link RequestRateLimitProperties}. Each rule keeps one
+ * bucket per client IP, or per user for {@code PRINCIPAL} rules. The client IP
+ * is the remote address as resolved by the container, which honours
+ * {@code X-Forwarded-For} only from trusted proxies. The user is
+ * taken from the bearer token only if that token is already in the
+ * {@link VerifiedTokenCache}, so unverified tokens cannot pick their bucket.
+ * Buckets count consumed tokens in a {@link LongAdder} and never take a lock.
+ * Under heavy contention a bucket can admit a few requests over its limit,
+ * which is acceptable for load shedding. Rejected requests get {@code 429} with
+ * {@code Retry-After}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RequestRateLimitProperties properties;
+    private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Bucket> buckets;
+
+    public RateLimitFilter(
+            RequestRateLimitProperties properties,
+            JwtUtils jwtUtils,
+            VerifiedTokenCache verifiedTokenCache,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.jwtUtils = jwtUtils;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedClients())
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestRateLimitProperties.Rule rule = properties.isEnabled() ? matchRule(request) : null;
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String client = clientKey(rule, request);
+        Bucket bucket = buckets.get(rule.getName() + "|" + client, key -> new Bucket(rule));
+        long retryAfterNanos = bucket.tryConsume(System.nanoTime());
+        if (retryAfterNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        logger.warn("Request rate limit '{}' exceeded by {} on {}", rule.getName(), client, request.getRequestURI());
+        Counter.builder("security.request_limit.rejected")
+                .tag("rule", rule.getName())
+                .register(meterRegistry)
+                .increment();
+        rejectRequest(request, response, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + 1);
+    }
+
+    private RequestRateLimitProperties.Rule matchRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RequestRateLimitProperties.Rule rule : properties.getRules()) {
+            List<String> methods = rule.getMethods();
+            boolean methodMatches = methods.isEmpty()
+                    || methods.stream().anyMatch(method -> method.equalsIgnoreCase(request.getMethod()));
+            if (methodMatches && pathMatcher.match(rule.getPattern(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(RequestRateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getScope() == RequestRateLimitProperties.Scope.PRINCIPAL) {
+            String token = jwtUtils.getJwtFromHeader(request);
+            if (token != null) {
+                String subject = verifiedTokenCache
+                        .peek(token)
+                        .map(VerifiedToken::subject)
+                        .orElse(null);
+                if (subject != null) {
+                    return "user:" + subject.toLowerCase(Locale.ROOT);
+                }
+            }
+        }
+        // Never the raw X-Forwarded-For: the container resolves it for trusted proxies only
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void rejectRequest(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded. Try again in " + retryAfterSeconds + " seconds");
+        body.put("path", request.getServletPath());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Lock-free token bucket. Instead of storing a token balance it counts the
+     * tokens ever taken and derives the balance from elapsed time:
+     * {@code available = capacity + (now - base) * rate - taken}. When the
+     * bucket has been idle long enough to exceed its capacity, {@code base} is
+     * moved forward so that idle time cannot be banked beyond one burst.
+     */
+    static final class Bucket {
+        private final long capacity;
+        private final double nanosPerToken;
+        private final LongAdder taken = new LongAdder();
+        private final AtomicLong baseNanos;
+
+        Bucket(RequestRateLimitProperties.Rule rule) {
+            this.capacity = rule.getCapacity();
+            this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond();
+            this.baseNanos = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until one is available
+         */
+        long tryConsume(long now) {
+            long base = baseNanos.get();
+            long used = taken.sum();
+            double credited = capacity + (now - base) / nanosPerToken;
+            if (used >= credited) {
+                return Math.max(1, (long) ((used - credited + 1) * nanosPerToken));
+            }
+            if (credited - used > capacity) {
+                // Idle bucket: cap the balance at one burst; losing the race is harmless
+                baseNanos.compareAndSet(base, now - (long) (used * nanosPerToken));
+            }
+            taken.increment();
+            return 0;
+        }
+    }
+}
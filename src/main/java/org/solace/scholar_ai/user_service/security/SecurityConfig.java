@@ -1,7 +1,10 @@
 package org.solace.scholar_ai.user_service.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,7 +15,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
@@ -25,6 +27,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 	private final AuthEntryPointJwt unauthorizedHandler;
 	private final AuthTokenFilter authTokenFilter;
+	private final RateLimitFilter rateLimitFilter;
 
 	@Bean
 	public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -45,6 +48,9 @@ public class SecurityConfig {
 						// Public: Auth endpoints (signup, login, etc)
 						.requestMatchers("/api/v1/auth/**")
 						.permitAll()
+						// Public: Token verification keys for other services
+						.requestMatchers("/.well-known/jwks.json")
+						.permitAll()
 						// Public: Internal service calls
 						.requestMatchers("/api/v1/notifications/send")
 						.permitAll()
@@ -62,7 +68,8 @@ public class SecurityConfig {
 										csp -> csp.policyDirectives(
 												"default-src 'self'; frame-ancestors 'self'; script-src 'self' 'unsafe-inline' 'unsafe-eval'; style-src 'self' 'unsafe-inline';")))
 				.csrf(csrf -> csrf.disable())
-				.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+				.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class)
+				.addFilterBefore(rateLimitFilter, AuthTokenFilter.class);
 
 		return http.build();
 	}
@@ -72,9 +79,21 @@ public class SecurityConfig {
 		return new JdbcUserDetailsManager(dataSource);
 	}
 
+	// Hashing runs on its own bounded pool so it cannot tie up request threads,
+	// at a cost calibrated against the per-core latency target at startup
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(
+			@Value("${security.password-hashing.algorithm:bcrypt}") String algorithm,
+			@Value("${security.password-hashing.target-ms:250}") long targetMs,
+			@Value("${security.password-hashing.cost:0}") int cost,
+			@Value("${security.password-hashing.argon2.memory-kb:19456}") int argon2MemoryKb,
+			@Value("${security.password-hashing.threads:0}") int threads,
+			@Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+			@Value("${security.password-hashing.max-wait-ms:2000}") long maxWaitMs,
+			MeterRegistry meterRegistry) {
+		PasswordEncoder encoder = new PasswordHashingCalibrator(Duration.ofMillis(targetMs), argon2MemoryKb)
+				.createEncoder(algorithm, cost);
+		return new BoundedPasswordEncoder(encoder, threads, queueCapacity, maxWaitMs, meterRegistry);
 	}
 
 	@Bean
@@ -0,0 +1,136 @@
+package org.solace.scholar_ai.user_service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local view of which users have logged out or had their sessions revoked, so
+ * that access tokens issued before the revocation can be rejected without a
+ * Redis round trip per request.
+ *
+ * <p>A revocation is published on a Redis pub/sub channel and also stored under
+ * a key that lives as long as an access token, which each instance scans
+ * periodically to pick up revocations it missed (for example while starting up
+ * or while disconnected). Entries older than the access token lifetime are
+ * dropped because every token they could reject has already expired.
+ */
+@Component
+public class SessionRevocationRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SessionRevocationRegistry.class);
+    private static final String CHANNEL = "session_revoked";
+    private static final String REDIS_KEY_PREFIX = "session_revoked:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Map<String, Instant> revokedAt = new ConcurrentHashMap<>();
+
+    @Value("${spring.app.access.expiration-ms}")
+    private long accessTokenValidityMs;
+
+    public SessionRevocationRegistry(
+            RedisTemplate<String, String> redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Revokes every access token issued to the user up to now, on all instances.
+     *
+     * @param username the user's email
+     */
+    public void revoke(String username) {
+        // JWT iat has second precision, so a token issued later in this second stays valid
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        record(username, now);
+        try {
+            String value = String.valueOf(now.toEpochMilli());
+            redisTemplate
+                    .opsForValue()
+                    .set(REDIS_KEY_PREFIX + username, value, Duration.ofMillis(accessTokenValidityMs));
+            redisTemplate.convertAndSend(CHANNEL, value + ":" + username);
+        } catch (Exception e) {
+            logger.warn(
+                    "Failed to publish session revocation for '{}', only enforced locally: {}",
+                    username,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether a token issued at the given time has been revoked.
+     *
+     * @param username the token subject
+     * @param issuedAt the token's iat claim; tokens without it are treated as revoked
+     *                 once any revocation exists for the user
+     * @return true if the user's sessions were revoked after the token was issued
+     */
+    public boolean isRevoked(String username, Instant issuedAt) {
+        Instant revoked = revokedAt.get(username);
+        return revoked != null && (issuedAt == null || issuedAt.isBefore(revoked));
+    }
+
+    /**
+     * Reloads revocations stored in Redis and drops local entries that can no
+     * longer match an unexpired token.
+     */
+    @Scheduled(fixedDelayString = "${security.session-revocation.sync-interval-ms:60000}")
+    public void sync() {
+        Instant horizon = Instant.now().minusMillis(accessTokenValidityMs);
+        revokedAt.values().removeIf(revoked -> revoked.isBefore(horizon));
+
+        try {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions()
+                    .match(REDIS_KEY_PREFIX + "*")
+                    .count(500)
+                    .build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                cursor.forEachRemaining(keys::add);
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                String value = values != null ? values.get(i) : null;
+                if (value != null) {
+                    record(
+                            keys.get(i).substring(REDIS_KEY_PREFIX.length()),
+                            Instant.ofEpochMilli(Long.parseLong(value)));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to sync session revocations from Redis: {}", e.getMessage());
+        }
+    }
+
+    private void onMessage(String body) {
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed session revocation message: {}", body);
+            return;
+        }
+        record(body.substring(separator + 1), Instant.ofEpochMilli(Long.parseLong(body.substring(0, separator))));
+    }
+
+    private void record(String username, Instant revoked) {
+        revokedAt.merge(username, revoked, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+}
@@ -0,0 +1,255 @@
+package org.solace.scholar_ai.user_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hierarchical timing wheel shared by the in-memory security stores to expire
+ * their entries.
+ *
+ * <p>The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. Level 0
+ * slots are one tick wide and each higher level is {@value #SLOTS} times
+ * coarser, so with the default one-second tick the wheel spans about 194 days.
+ * Scheduling and cancelling are O(1) list operations on a slot. When a lower
+ * level wraps around, the matching slot of the level above is cascaded down.
+ * Every entry whose tick has come up is expired in one batch, and the callbacks
+ * run outside the lock. Memory is the fixed slot table plus one node per live
+ * entry, and a node is released as soon as it fires or is cancelled.
+ */
+@Component
+public class TimingWheel {
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMs;
+    private final Node[][] wheel = new Node[LEVELS][SLOTS];
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter expiredCounter;
+    private final long startNanos = System.nanoTime();
+    private ScheduledExecutorService ticker;
+
+    // Guarded by lock
+    private long currentTick;
+    private int liveEntries;
+
+    public TimingWheel(@Value("${security.timing-wheel.tick-ms:1000}") long tickMs, MeterRegistry meterRegistry) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        this.tickMs = tickMs;
+        for (Node[] level : wheel) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = newSlotHead();
+            }
+        }
+        Gauge.builder("security.timing_wheel.entries", this, TimingWheel::size)
+                .description("Live entries waiting to expire in the security timing wheel")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("security.timing_wheel.expired")
+                .description("Entries expired by the security timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Handle to a scheduled expiration.
+     */
+    public interface Timeout {
+        /**
+         * Cancels the expiration if it has not fired yet.
+         *
+         * @return true if this call prevented the callback from running
+         */
+        boolean cancel();
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "security-timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::advanceToNow, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the callback once the delay has elapsed, rounded up to whole ticks.
+     *
+     * @param delay    how long to wait; at least one tick is used
+     * @param onExpiry callback to run on the wheel's thread; should be short
+     * @return a handle that can cancel the expiration
+     */
+    public Timeout schedule(Duration delay, Runnable onExpiry) {
+        long ticks = Math.max(1, Math.ceilDiv(Math.max(0, delay.toMillis()), tickMs));
+        lock.lock();
+        try {
+            Node node = new Node(currentTick + ticks, onExpiry);
+            place(node);
+            liveEntries++;
+            return node;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return liveEntries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void advanceToNow() {
+        try {
+            long elapsedTicks = (System.nanoTime() - startNanos) / TimeUnit.MILLISECONDS.toNanos(tickMs);
+            advance(elapsedTicks - currentTickSnapshot());
+        } catch (Exception e) {
+            logger.error("Timing wheel tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private long currentTickSnapshot() {
+        lock.lock();
+        try {
+            return currentTick;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel forward and runs every callback that came due.
+     *
+     * @param ticks number of ticks to advance
+     */
+    void advance(long ticks) {
+        List<Runnable> due = new ArrayList<>();
+        lock.lock();
+        try {
+            for (long i = 0; i < ticks; i++) {
+                currentTick++;
+                // Cascade from the coarsest level that wrapped down to level 1
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        cascade(level);
+                    }
+                }
+                Node head = wheel[0][(int) (currentTick & SLOT_MASK)];
+                for (Node node = head.next; node != head; ) {
+                    Node next = node.next;
+                    node.unlink();
+                    liveEntries--;
+                    due.add(node.onExpiry);
+                    node = next;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Runnable callback : due) {
+            try {
+                callback.run();
+            } catch (Exception e) {
+                logger.warn("Timing wheel expiry callback failed: {}", e.getMessage(), e);
+            }
+        }
+        expiredCounter.increment(due.size());
+    }
+
+    private void cascade(int level) {
+        Node head = wheel[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        for (Node node = head.next; node != head; ) {
+            Node next = node.next;
+            node.unlink();
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long remaining = node.deadline - currentTick;
+        // Deadlines beyond the wheel's span park in the top level and are re-placed when cascaded
+        long target = remaining < MAX_SPAN_TICKS ? node.deadline : currentTick + MAX_SPAN_TICKS - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && target - currentTick >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        node.linkBefore(wheel[level][(int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+    }
+
+    private Node newSlotHead() {
+        Node head = new Node(Long.MIN_VALUE, null);
+        head.prev = head;
+        head.next = head;
+        return head;
+    }
+
+    private final class Node implements Timeout {
+        private final long deadline;
+        private final Runnable onExpiry;
+        private Node prev;
+        private Node next;
+
+        private Node(long deadline, Runnable onExpiry) {
+            this.deadline = deadline;
+            this.onExpiry = onExpiry;
+        }
+
+        @Override
+        public boolean cancel() {
+            lock.lock();
+            try {
+                if (next == null) {
+                    return false;
+                }
+                unlink();
+                liveEntries--;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void linkBefore(Node head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
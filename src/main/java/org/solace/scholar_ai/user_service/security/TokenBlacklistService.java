@@ -1,27 +1,87 @@
 package org.solace.scholar_ai.user_service.security;
 
-import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.user_service.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Denylist of individually revoked access tokens, keyed by their {@code jti}.
+ *
+ * <p>Revocations live in Redis with a TTL equal to the token's remaining
+ * lifetime and are broadcast to every instance, which mirrors them in a local
+ * {@link BloomFilter}. A token the filter has never seen is known not to be
+ * revoked without a network call; only filter hits are confirmed against Redis.
+ * The filter is rebuilt from Redis periodically so expired revocations drop out.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TokenBlacklistService {
 
-	private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+	private static final String REDIS_KEY_PREFIX = "token_denylist:";
+	private static final String CHANNEL = "token_denylist";
+
 	private final JwtUtils jwtUtils;
+	private final RedisTemplate<String, String> redisTemplate;
+	private final RedisMessageListenerContainer listenerContainer;
+
+	@Value("${security.token-denylist.expected-insertions:100000}")
+	private long expectedInsertions;
+
+	@Value("${security.token-denylist.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+
+	private volatile BloomFilter filter;
+	// Non-null while a rebuild is scanning Redis, so revocations received meanwhile are not lost
+	private volatile BloomFilter rebuilding;
 
+	@PostConstruct
+	public void init() {
+		filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+		listenerContainer.addMessageListener(
+				(message, pattern) -> remember(new String(message.getBody(), StandardCharsets.UTF_8)),
+				new ChannelTopic(CHANNEL));
+	}
+
+	/**
+	 * Revokes a single access token until it expires. Invalid or already
+	 * expired tokens are ignored since they are rejected anyway.
+	 */
 	public void blacklistToken(String token) {
-		if (token != null && !token.isEmpty()) {
-			blacklistedTokens.add(token);
+		if (token == null || token.isEmpty()) {
+			return;
+		}
+		Optional<VerifiedToken> verified = jwtUtils.verify(token);
+		if (verified.isEmpty() || verified.get().expiresAt() == null) {
+			return;
+		}
+		String id = tokenId(token, verified.get());
+		Duration remaining = Duration.between(Instant.now(), verified.get().expiresAt());
+		if (remaining.isNegative() || remaining.isZero()) {
+			return;
+		}
+
+		remember(id);
+		try {
+			redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + id, "1", remaining);
+			redisTemplate.convertAndSend(CHANNEL, id);
 			log.info("Token blacklisted: {}", maskToken(token));
+		} catch (Exception e) {
+			log.warn("Failed to store token revocation in Redis, only enforced locally: {}", e.getMessage());
 		}
 	}
 
@@ -33,34 +93,67 @@ public class TokenBlacklistService {
 	}
 
 	public boolean isBlacklisted(String token) {
-		return token != null && blacklistedTokens.contains(token);
+		if (token == null) {
+			return false;
+		}
+		return jwtUtils.verify(token).map(verified -> isBlacklisted(token, verified)).orElse(false);
 	}
 
-	public void cleanExpiredTokens() {
-		int initialSize = blacklistedTokens.size();
-		blacklistedTokens.removeIf(token -> {
-			try {
-				return isTokenExpired(token);
-			} catch (Exception e) {
-				log.warn("Error checking token expiry, removing from blacklist: {}", e.getMessage());
-				return true;
-			}
-		});
-		int removed = initialSize - blacklistedTokens.size();
-		if (removed > 0) {
-			log.info("Cleaned {} expired tokens from blacklist", removed);
+	/**
+	 * Checks an already verified token against the denylist. Needs no network
+	 * call unless the local filter reports a possible match.
+	 */
+	public boolean isBlacklisted(String token, VerifiedToken verified) {
+		String id = tokenId(token, verified);
+		if (!filter.mightContain(id)) {
+			return false;
+		}
+		try {
+			return Boolean.TRUE.equals(redisTemplate.hasKey(REDIS_KEY_PREFIX + id));
+		} catch (Exception e) {
+			// Cannot tell a revoked token from a false positive; fail closed
+			log.warn("Could not confirm token revocation in Redis, treating token as revoked: {}", e.getMessage());
+			return true;
 		}
 	}
 
-	private boolean isTokenExpired(String token) {
+	/**
+	 * Rebuilds the local filter from the revocations still stored in Redis,
+	 * dropping those whose tokens have expired.
+	 */
+	@Scheduled(
+			fixedDelayString = "${security.token-denylist.rebuild-interval-ms:600000}",
+			initialDelay = 0)
+	public void rebuild() {
+		BloomFilter fresh = new BloomFilter(expectedInsertions, falsePositiveRate);
+		rebuilding = fresh;
 		try {
-			String username = jwtUtils.getUserNameFromJwtToken(token);
-			return false;
+			ScanOptions options = ScanOptions.scanOptions().match(REDIS_KEY_PREFIX + "*").count(500).build();
+			try (Cursor<String> cursor = redisTemplate.scan(options)) {
+				cursor.forEachRemaining(key -> fresh.put(key.substring(REDIS_KEY_PREFIX.length())));
+			}
+			filter = fresh;
+			log.debug("Rebuilt token denylist filter with {} entries", fresh.insertions());
 		} catch (Exception e) {
-			return true;
+			log.warn("Failed to rebuild token denylist from Redis, keeping current filter: {}", e.getMessage());
+		} finally {
+			rebuilding = null;
 		}
 	}
 
+	private void remember(String id) {
+		filter.put(id);
+		BloomFilter pending = rebuilding;
+		if (pending != null) {
+			pending.put(id);
+		}
+	}
+
+	// Tokens issued before jti was added are identified by their digest instead
+	private String tokenId(String token, VerifiedToken verified) {
+		return verified.tokenId() != null ? verified.tokenId() : VerifiedTokenCache.digest(token);
+	}
+
 	private String maskToken(String token) {
 		if (token == null || token.length() < 10) {
 			return "***";
@@ -68,7 +161,7 @@ public class TokenBlacklistService {
 		return token.substring(0, 5) + "..." + token.substring(token.length() - 5);
 	}
 
-	public int getBlacklistSize() {
-		return blacklistedTokens.size();
+	public long getBlacklistSize() {
+		return filter.insertions();
 	}
 }
@@ -0,0 +1,129 @@
+package org.solace.scholar_ai.user_service.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.service.auth.UserLoadingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Performs the transparent cookie refresh done by {@link AuthTokenFilter} when an
+ * access token has expired, at most once per refresh token at a time.
+ *
+ * <p>Concurrent requests carrying the same refresh token wait for a single
+ * computation and share its result. A successful result is reused for a short
+ * window so that requests arriving just after it get the same new access token
+ * instead of minting another one. Every result, shared or reused, is checked
+ * against {@link SessionRevocationRegistry} before it is handed out, so a
+ * logout or password reset also ends reuse of a refresh done before it.
+ */
+@Component
+public class TokenRefreshCoalescer {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRefreshCoalescer.class);
+
+    private final JwtUtils jwtUtils;
+    private final UserLoadingService userLoadingService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final SessionRevocationRegistry sessionRevocationRegistry;
+    private final AsyncCache<String, Optional<RefreshedAccess>> inFlight;
+
+    public TokenRefreshCoalescer(
+            JwtUtils jwtUtils,
+            UserLoadingService userLoadingService,
+            RedisTemplate<String, String> redisTemplate,
+            SessionRevocationRegistry sessionRevocationRegistry,
+            @Value("${spring.app.jwt.refresh-reuse-ms:5000}") long reuseMs) {
+        this.jwtUtils = jwtUtils;
+        this.userLoadingService = userLoadingService;
+        this.redisTemplate = redisTemplate;
+        this.sessionRevocationRegistry = sessionRevocationRegistry;
+        this.inFlight = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(reuseMs))
+                .maximumSize(10_000)
+                .buildAsync();
+    }
+
+    /**
+     * A new access token together with the principal it was issued for.
+     *
+     * @param accessToken the newly issued access token
+     * @param principal   the user the token was issued to
+     * @param issuedAt    when the token was issued, at the second precision of its iat claim
+     */
+    public record RefreshedAccess(String accessToken, AuthenticatedUser principal, Instant issuedAt) {}
+
+    /**
+     * Issues a new access token for the given refresh token, joining a refresh
+     * already in progress for the same token if there is one.
+     *
+     * @param refreshToken the refresh token from the request cookie
+     * @return the new access token and principal, or empty if the refresh token
+     *         is invalid, expired or no longer known
+     */
+    public Optional<RefreshedAccess> refresh(String refreshToken) {
+        String key = VerifiedTokenCache.digest(refreshToken);
+        CompletableFuture<Optional<RefreshedAccess>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<RefreshedAccess>> existing = inFlight.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            logger.debug("Joining in-flight token refresh");
+            return existing.join().filter(this::notRevoked);
+        }
+
+        try {
+            Optional<RefreshedAccess> result = doRefresh(refreshToken);
+            pending.complete(result);
+            if (result.isEmpty()) {
+                // Share the failure with current waiters only; later requests re-check
+                inFlight.asMap().remove(key, pending);
+            }
+            return result.filter(this::notRevoked);
+        } catch (RuntimeException e) {
+            // Caffeine drops exceptionally completed futures, so the next request retries
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Optional<RefreshedAccess> doRefresh(String refreshToken) {
+        // Validate the refresh token format and expiration
+        Optional<VerifiedToken> verifiedRefreshToken = jwtUtils.verify(refreshToken);
+        if (verifiedRefreshToken.isEmpty()) {
+            logger.warn("Refresh token is invalid or expired");
+            return Optional.empty();
+        }
+        String username = verifiedRefreshToken.get().subject();
+        logger.debug("Refresh token username: {}", username);
+
+        // Check if refresh token exists in Redis
+        Boolean hasKey = redisTemplate.hasKey("refresh_token:" + username);
+        if (hasKey == null || !hasKey) {
+            logger.warn("Refresh token not found in Redis for user: {}", username);
+            return Optional.empty();
+        }
+
+        AuthenticatedUser principal = (AuthenticatedUser) userLoadingService.loadUserByUsername(username);
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String accessToken = jwtUtils.generateAccessToken(principal);
+        logger.debug("Generated new access token for user: {}", username);
+        return Optional.of(new RefreshedAccess(accessToken, principal, issuedAt));
+    }
+
+    // Revocations have second precision; a refresh in the same second may predate it, and its
+    // refresh token is the one revoked, so it is discarded too
+    private boolean notRevoked(RefreshedAccess refreshed) {
+        String username = refreshed.principal().getUsername();
+        if (sessionRevocationRegistry.isRevoked(username, refreshed.issuedAt().minusSeconds(1))) {
+            logger.info("Discarding refreshed access token for '{}' issued before session revocation", username);
+            return false;
+        }
+        return true;
+    }
+}
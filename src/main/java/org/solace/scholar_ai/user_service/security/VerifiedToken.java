@@ -0,0 +1,74 @@
+package org.solace.scholar_ai.user_service.security;
+
+import io.jsonwebtoken.Claims;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been checked.
+ * Produced by {@link JwtUtils#verify(String)} so callers never parse the same
+ * token twice.
+ *
+ * @param tokenId        the token id from the {@code jti} claim, or null if absent
+ * @param subject        the token subject (the user's email)
+ * @param issuedAt       when the token was issued, or null if the claim is absent
+ * @param expiresAt      when the token expires, or null if the claim is absent
+ * @param authorities    authorities asserted by the {@code roles} claim, empty if absent
+ * @param userId         the user id from the {@code uid} claim, or null if absent
+ * @param emailConfirmed the {@code email_confirmed} claim, or null if absent
+ */
+public record VerifiedToken(
+        String tokenId,
+        String subject,
+        Instant issuedAt,
+        Instant expiresAt,
+        List<GrantedAuthority> authorities,
+        UUID userId,
+        Boolean emailConfirmed) {
+
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    static final String EMAIL_CONFIRMED_CLAIM = "email_confirmed";
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                toAuthorities(claims.get(ROLES_CLAIM)),
+                toUuid(claims.get(USER_ID_CLAIM, String.class)),
+                claims.get(EMAIL_CONFIRMED_CLAIM, Boolean.class));
+    }
+
+    /**
+     * Whether the token carries every claim needed to build the principal
+     * without loading the user. Tokens issued before these claims were added
+     * (and refresh tokens) do not.
+     */
+    public boolean isSelfContained() {
+        return userId != null && emailConfirmed != null && !authorities.isEmpty();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    private static UUID toUuid(String value) {
+        return value != null ? UUID.fromString(value) : null;
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Object roles) {
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+}
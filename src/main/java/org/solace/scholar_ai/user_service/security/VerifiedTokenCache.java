@@ -0,0 +1,86 @@
+package org.solace.scholar_ai.user_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size-bounded cache of already verified access tokens, keyed by the SHA-256
+ * digest of the compact token. A hit skips signature verification and claims
+ * parsing entirely. Every entry expires no later than the token's own
+ * {@code exp}, so a cached token can never outlive its validity.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final JwtUtils jwtUtils;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            JwtUtils jwtUtils,
+            MeterRegistry meterRegistry,
+            @Value("${spring.app.jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating(
+                        (String key, VerifiedToken token) -> Duration.between(Instant.now(), token.expiresAt())))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the verified form of the token, verifying it with {@link JwtUtils}
+     * only when it is not already cached. Invalid tokens are never cached.
+     *
+     * @param token the compact JWT string
+     * @return the verified token, or empty if the token is invalid or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<VerifiedToken> verified = jwtUtils.verify(token);
+        verified.filter(VerifiedTokenCache::isCacheable).ifPresent(value -> cache.put(key, value));
+        return verified;
+    }
+
+    /**
+     * Returns the token only if it is already cached, without verifying it.
+     *
+     * @param token the compact JWT string
+     * @return the previously verified token, or empty if it is not cached
+     */
+    public Optional<VerifiedToken> peek(String token) {
+        return Optional.ofNullable(cache.getIfPresent(digest(token)));
+    }
+
+    private static boolean isCacheable(VerifiedToken token) {
+        return token.expiresAt() != null && token.expiresAt().isAfter(Instant.now());
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
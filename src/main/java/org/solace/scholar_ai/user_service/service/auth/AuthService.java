@@ -2,17 +2,19 @@ package org.solace.scholar_ai.user_service.service.auth;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.solace.scholar_ai.user_service.dto.auth.AuthResponse;
 import org.solace.scholar_ai.user_service.dto.auth.EmailConfirmationStatusDTO;
 import org.solace.scholar_ai.user_service.model.User;
-import org.solace.scholar_ai.user_service.model.UserProfile;
 import org.solace.scholar_ai.user_service.model.UserRole;
-import org.solace.scholar_ai.user_service.repository.UserIdentityProviderRepository;
-import org.solace.scholar_ai.user_service.repository.UserProfileRepository;
+import org.solace.scholar_ai.user_service.repository.LoginAccount;
 import org.solace.scholar_ai.user_service.repository.UserRepository;
+import org.solace.scholar_ai.user_service.security.AuthenticatedUser;
 import org.solace.scholar_ai.user_service.security.JwtUtils;
+import org.solace.scholar_ai.user_service.security.VerifiedToken;
 import org.solace.scholar_ai.user_service.service.notification.NotificationService;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -20,19 +22,19 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
-    private final UserIdentityProviderRepository userIdentityProviderRepository;
-    private final UserProfileRepository userProfileRepository;
     private final UserLoadingService userLoadingService;
+    private final RegisteredEmailIndex registeredEmailIndex;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final RefreshTokenService refreshTokenService;
@@ -40,49 +42,68 @@ public class AuthService {
     private final NotificationService notificationService;
 
     public Authentication authentication(String email, String password) {
-        UserDetails userDetails = userLoadingService.loadUserByUsername(email);
+        AuthenticatedUser userDetails = (AuthenticatedUser) userLoadingService.loadUserByUsername(email);
 
         if (userDetails == null) {
             throw new BadCredentialsException("Invalid credentials");
         }
+        // Social accounts have no password to check; answered like a wrong password so the account type stays private
+        if (userDetails.isSocialAccount()
+                || SocialAccountProvisioner.isSocialLoginPassword(userDetails.getPassword())) {
+            throw new BadCredentialsException("Invalid credentials");
+        }
         if (!passwordEncoder.matches(password, userDetails.getPassword())) {
             throw new BadCredentialsException("Invalid credentials");
         }
+        if (passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+            upgradePasswordHash(email, password);
+        }
 
         return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
 
+    // Rehash with the current algorithm and cost now that the plain password is known
+    private void upgradePasswordHash(String email, String password) {
+        try {
+            String encoded = passwordEncoder.encode(password);
+            userRepository.findByEmail(email).ifPresent(user -> {
+                user.setEncryptedPassword(encoded);
+                user.setUpdatedAt(Instant.now());
+                userRepository.saveAndFlush(user);
+            });
+            userLoadingService.evict(email);
+        } catch (Exception e) {
+            // The old hash still works; try again on the next login
+            log.warn("Could not upgrade password hash for {}: {}", email, e.getMessage());
+        }
+    }
+
     // register new user
     public void registerUser(String email, String password, UserRole role) {
-        // if exists in users table, not allowed
-        if (userRepository.findByEmail(email).isPresent()) {
+        // The unique email index rejects duplicates, so no lookups are needed before inserting
+        int created = userRepository.insertIfEmailAbsent(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                email,
+                passwordEncoder.encode(password),
+                (role != null ? role : UserRole.USER).name(), // Use provided role or default to USER
+                Instant.now());
+        if (created == 0) {
+            boolean socialAccount = userRepository
+                    .findLoginAccountByEmail(email)
+                    .map(LoginAccount::socialAccount)
+                    .orElse(false);
+            if (socialAccount) {
+                throw new BadCredentialsException("This " + email
+                        + " is already registered via Google/Github login. Please use social auth to continue.");
+            }
             throw new BadCredentialsException("User with email " + email + " already exists.");
-        } else if (userIdentityProviderRepository.findByUserEmail(email).isPresent()) {
-            throw new BadCredentialsException("This " + email
-                    + " is already registered via Google/Github login. Please use social auth to continue.");
         }
-
-        User newUser = new User();
-        newUser.setEmail(email);
-        newUser.setEncryptedPassword(passwordEncoder.encode(password));
-        newUser.setRole(role != null ? role : UserRole.USER); // Use provided role or default to USER
-        newUser.setEmailConfirmed(false);
-        newUser.setCreatedAt(Instant.now());
-        newUser.setUpdatedAt(Instant.now());
-
-        User savedUser = userRepository.save(newUser);
-
-        // Create empty user profile
-        UserProfile userProfile = new UserProfile();
-        userProfile.setUser(savedUser);
-        userProfile.setCreatedAt(Instant.now());
-        userProfile.setUpdatedAt(Instant.now());
-
-        userProfileRepository.save(userProfile);
+        registeredEmailIndex.add(email);
 
         // Send email verification with OTP
         try {
-            String verificationCode = generateVerificationCode(email);
+            String verificationCode = storeVerificationCode(email);
             notificationService.sendEmailVerificationEmail(email, email.split("@")[0], verificationCode);
         } catch (Exception e) {
             // Log error but don't fail registration
@@ -95,25 +116,13 @@ public class AuthService {
         Authentication authentication = authentication(email, password);
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String accessToken = jwtUtils.generateAccessToken(userDetails.getUsername());
+        AuthenticatedUser userDetails = (AuthenticatedUser) authentication.getPrincipal();
+        String accessToken = jwtUtils.generateAccessToken(userDetails);
         String refreshToken = jwtUtils.generateRefreshToken(userDetails.getUsername());
         refreshTokenService.saveRefreshToken(userDetails.getUsername(), refreshToken);
 
-        // if user exists in social_users, then not allow email, pass login
-        if (userIdentityProviderRepository.findByUserEmail(email).isPresent()) {
-            throw new BadCredentialsException("This " + email
-                    + " is already registered via Google/Github login. Please use social auth to continue.");
-        }
-
-        User user =
-                userRepository.findByEmail(email).orElseThrow(() -> new BadCredentialsException("Invalid email ..."));
-
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList();
-
-        return new AuthResponse(accessToken, refreshToken, userDetails.getUsername(), user.getId(), user.getRole());
+        return new AuthResponse(
+                accessToken, refreshToken, userDetails.getUsername(), userDetails.getUserId(), roleOf(userDetails));
     }
 
     // refresh access token when access token expires
@@ -122,11 +131,9 @@ public class AuthService {
             throw new BadCredentialsException("Refresh token is null or empty");
         }
 
-        if (!jwtUtils.validateJwtToken(refreshToken)) {
-            throw new BadCredentialsException("Invalid refresh token - JWT validation failed");
-        }
-
-        String username = jwtUtils.getUserNameFromJwtToken(refreshToken);
+        String username = jwtUtils.verify(refreshToken)
+                .map(VerifiedToken::subject)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token - JWT validation failed"));
         if (username == null || username.trim().isEmpty()) {
             throw new BadCredentialsException("Invalid refresh token - username extraction failed");
         }
@@ -135,18 +142,29 @@ public class AuthService {
             throw new BadCredentialsException("Refresh token is not recognized or has expired");
         }
 
-        String newAccessToken = jwtUtils.generateAccessToken(username);
+        AuthenticatedUser user;
+        try {
+            user = (AuthenticatedUser) userLoadingService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            throw new BadCredentialsException("Invalid Email...");
+        }
+
+        // Reissued from the current user (the cache is evicted on every change), so role and
+        // confirmation changes take effect on refresh
+        String newAccessToken = jwtUtils.generateAccessToken(user);
         String newRefreshToken = refreshToken;
         refreshTokenService.saveRefreshToken(username, newRefreshToken);
 
-        User user =
-                userRepository.findByEmail(username).orElseThrow(() -> new BadCredentialsException("Invalid Email..."));
+        return new AuthResponse(newAccessToken, newRefreshToken, username, user.getUserId(), roleOf(user));
+    }
 
-        List<String> roles = userLoadingService.loadUserByUsername(username).getAuthorities().stream()
+    private static UserRole roleOf(AuthenticatedUser user) {
+        return user.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
-                .toList();
-
-        return new AuthResponse(newAccessToken, newRefreshToken, username, user.getId(), user.getRole());
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> UserRole.valueOf(authority.substring("ROLE_".length())))
+                .findFirst()
+                .orElse(UserRole.USER);
     }
 
     // Logout user
@@ -196,6 +214,7 @@ public class AuthService {
 
         redisTemplate.delete(redisKey); // invalidate used code
         refreshTokenService.deleteRefreshToken(email);
+        userLoadingService.evict(email);
     }
 
     // Generate email verification code
@@ -208,6 +227,10 @@ public class AuthService {
             throw new IllegalArgumentException("Email is already confirmed");
         }
 
+        return storeVerificationCode(email);
+    }
+
+    private String storeVerificationCode(String email) {
         String code = String.valueOf((int) ((Math.random() * 900000) + 100000)); // 6-digit code
         String redisKey = "VERIFICATION_CODE:" + email;
         redisTemplate.opsForValue().set(redisKey, code, Duration.ofMinutes(10)); // expires in 10 min
@@ -236,6 +259,7 @@ public class AuthService {
         user.setEmailConfirmed(true);
         user.setUpdatedAt(Instant.now());
         userRepository.saveAndFlush(user);
+        userLoadingService.evict(email);
 
         redisTemplate.delete(redisKey); // invalidate used code
 
@@ -263,11 +287,14 @@ public class AuthService {
 
     // Check email confirmation status
     public EmailConfirmationStatusDTO checkEmailConfirmationStatus(String email) {
-        return userRepository
-                .findByEmail(email)
-                .map(user -> EmailConfirmationStatusDTO.builder()
+        Optional<User> user = Optional.empty();
+        if (registeredEmailIndex.mightBeRegistered(email)) {
+            user = userRepository.findByEmail(email);
+            registeredEmailIndex.recordLookup(email, user.isPresent());
+        }
+        return user.map(found -> EmailConfirmationStatusDTO.builder()
                         .email(email)
-                        .isEmailConfirmed(user.isEmailConfirmed())
+                        .isEmailConfirmed(found.isEmailConfirmed())
                         .userExists(true)
                         .build())
                 .orElse(EmailConfirmationStatusDTO.builder()
@@ -279,14 +306,14 @@ public class AuthService {
 
     // Check if email is available for registration
     public boolean isEmailAvailable(String email) {
-        // Check if email exists in users table
-        boolean existsInUsers = userRepository.findByEmail(email).isPresent();
-
-        // Check if email exists in social users table
-        boolean existsInSocialUsers =
-                userIdentityProviderRepository.findByUserEmail(email).isPresent();
+        // Most free emails are answered by the filter without a query
+        if (!registeredEmailIndex.mightBeRegistered(email)) {
+            return true;
+        }
 
-        // Email is available if it doesn't exist in either table
-        return !existsInUsers && !existsInSocialUsers;
+        // Social accounts have a users row too, so one lookup covers both
+        boolean exists = userRepository.existsByEmail(email);
+        registeredEmailIndex.recordLookup(email, exists);
+        return !exists;
     }
 }
@@ -4,6 +4,8 @@ import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.security.SessionRevocationRegistry;
+import org.solace.scholar_ai.user_service.security.TimingWheel;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -14,17 +16,27 @@ public class RefreshTokenService {
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
     private static final String REDIS_REFRESH_TOKEN_PREFIX = "refresh_token";
     private final RedisTemplate<String, String> redisTemplate;
+    private final SessionRevocationRegistry sessionRevocationRegistry;
 
-    // Fallback in-memory storage for when Redis is unavailable
-    private final ConcurrentHashMap<String, String> fallbackStorage = new ConcurrentHashMap<>();
+    private final TimingWheel timingWheel;
+
+    // Fallback in-memory storage for when Redis is unavailable; entries are expired by the timing wheel
+    private final ConcurrentHashMap<String, FallbackToken> fallbackStorage = new ConcurrentHashMap<>();
 
     @Value("${spring.app.refresh.expiration-ms}")
     private long refreshTokenValidityMs;
 
-    public RefreshTokenService(RedisTemplate<String, String> redisTemplate) {
+    public RefreshTokenService(
+            RedisTemplate<String, String> redisTemplate,
+            SessionRevocationRegistry sessionRevocationRegistry,
+            TimingWheel timingWheel) {
         this.redisTemplate = redisTemplate;
+        this.sessionRevocationRegistry = sessionRevocationRegistry;
+        this.timingWheel = timingWheel;
     }
 
+    private record FallbackToken(String token, TimingWheel.Timeout expiry) {}
+
     public void saveRefreshToken(String username, String refreshToken) {
         Assert.notNull(username, "Username cannot be null");
         Assert.notNull(refreshToken, "Refresh token cannot be null");
@@ -36,7 +48,7 @@ public class RefreshTokenService {
         } catch (Exception e) {
             logger.warn("Failed to save refresh token in Redis for user: {}, using fallback storage", username, e);
             // Fallback to in-memory storage
-            fallbackStorage.put(username, refreshToken);
+            saveFallbackToken(username, refreshToken);
         }
     }
 
@@ -55,11 +67,12 @@ public class RefreshTokenService {
         }
 
         // Fallback to in-memory storage
-        String fallbackToken = fallbackStorage.get(username);
+        FallbackToken fallbackToken = fallbackStorage.get(username);
         if (fallbackToken != null) {
             logger.debug("Retrieved refresh token for user: {} from fallback storage", username);
+            return fallbackToken.token();
         }
-        return fallbackToken;
+        return null;
     }
 
     public void deleteRefreshToken(String username) {
@@ -74,8 +87,25 @@ public class RefreshTokenService {
         }
 
         // Also delete from fallback storage
-        fallbackStorage.remove(username);
+        FallbackToken removed = fallbackStorage.remove(username);
+        if (removed != null) {
+            removed.expiry().cancel();
+        }
         logger.debug("Deleted refresh token for user: {} from fallback storage", username);
+
+        // Reject access tokens already issued to this user on every instance
+        sessionRevocationRegistry.revoke(username);
+    }
+
+    private void saveFallbackToken(String username, String refreshToken) {
+        FallbackToken[] saved = new FallbackToken[1];
+        TimingWheel.Timeout expiry = timingWheel.schedule(
+                Duration.ofMillis(refreshTokenValidityMs), () -> fallbackStorage.remove(username, saved[0]));
+        saved[0] = new FallbackToken(refreshToken, expiry);
+        FallbackToken previous = fallbackStorage.put(username, saved[0]);
+        if (previous != null) {
+            previous.expiry().cancel();
+        }
     }
 
     public boolean isRefreshTokenValid(String username, String refreshToken) {
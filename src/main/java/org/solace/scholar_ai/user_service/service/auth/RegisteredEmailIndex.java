@@ -0,0 +1,262 @@
+package org.solace.scholar_ai.user_service.service.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.repository.UserRepository;
+import org.solace.scholar_ai.user_service.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers "is this email registered?" without a query for most emails that
+ * are not.
+ *
+ * <p>A {@link BloomFilter} of every registered email is built from the database
+ * once the application is ready and on a schedule, and updated as accounts are
+ * created. An email the filter has never seen is known to be free. Probable
+ * hits fall through to the database; those the database reports as absent are
+ * false positives and are kept in a short-lived negative cache, so repeated
+ * checks of the same address do not query again. Until the first build
+ * completes every email is a probable hit.
+ *
+ * <p>With {@code registered-emails.share-through-redis} enabled, new emails and
+ * rebuild requests are broadcast to every instance over Redis pub/sub.
+ */
+@Component
+public class RegisteredEmailIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmailIndex.class);
+    private static final String ADDED_CHANNEL = "registered_emails:added";
+    private static final String REBUILD_CHANNEL = "registered_emails:rebuild";
+    private static final int PAGE_SIZE = 5000;
+
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final boolean shareThroughRedis;
+    private final Cache<String, Boolean> absent;
+    private final AtomicBoolean building = new AtomicBoolean();
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final Counter filteredCounter;
+    private final Counter negativeCachedCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter registeredCounter;
+
+    private volatile BloomFilter filter;
+    // Non-null while a rebuild is reading the database, so emails added meanwhile are not lost
+    private volatile BloomFilter rebuilding;
+
+    public RegisteredEmailIndex(
+            UserRepository userRepository,
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${registered-emails.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${registered-emails.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${registered-emails.negative-cache-ttl-ms:60000}") long negativeCacheTtlMs,
+            @Value("${registered-emails.negative-cache-max-size:10000}") long negativeCacheMaxSize,
+            @Value("${registered-emails.share-through-redis:true}") boolean shareThroughRedis) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.shareThroughRedis = shareThroughRedis;
+        this.absent = Caffeine.newBuilder()
+                .maximumSize(negativeCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(negativeCacheTtlMs))
+                .build();
+
+        this.filteredCounter = lookups(meterRegistry, "filtered");
+        this.negativeCachedCounter = lookups(meterRegistry, "negative_cached");
+        this.falsePositiveCounter = lookups(meterRegistry, "false_positive");
+        this.registeredCounter = lookups(meterRegistry, "registered");
+        Gauge.builder(
+                        "registered_emails.filter.false_positive_rate",
+                        this,
+                        RegisteredEmailIndex::observedFalsePositiveRate)
+                .description(
+                        "Share of unregistered emails the filter let through to the database since the last rebuild")
+                .register(meterRegistry);
+        Gauge.builder("registered_emails.filter.insertions", this, RegisteredEmailIndex::size)
+                .description("Emails added to the registered email filter")
+                .register(meterRegistry);
+
+        if (shareThroughRedis) {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> remember(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(ADDED_CHANNEL));
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> CompletableFuture.runAsync(this::rebuild), new ChannelTopic(REBUILD_CHANNEL));
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("registered_emails.lookups")
+                .description("Registered email checks by how they were answered")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false if the email is certainly not registered, true if it may be
+     *         and the caller has to check the database
+     */
+    public boolean mightBeRegistered(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            filtered.increment();
+            filteredCounter.increment();
+            return false;
+        }
+        if (absent.getIfPresent(email) != null) {
+            negativeCachedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records the database's answer for an email {@link #mightBeRegistered}
+     * let through.
+     */
+    public void recordLookup(String email, boolean registered) {
+        if (registered) {
+            registeredCounter.increment();
+            return;
+        }
+        absent.put(email, Boolean.TRUE);
+        if (filter != null) {
+            falsePositives.increment();
+            falsePositiveCounter.increment();
+        }
+    }
+
+    /**
+     * Adds a newly registered email on this and, if sharing is enabled, every
+     * other instance.
+     */
+    public void add(String email) {
+        remember(email);
+        if (!shareThroughRedis) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(ADDED_CHANNEL, email);
+        } catch (Exception e) {
+            logger.warn(
+                    "Failed to publish registered email, other instances pick it up on their next rebuild: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Asks every instance to rebuild its filter, or only this one when sharing
+     * is disabled.
+     */
+    public void requestRebuild() {
+        if (shareThroughRedis) {
+            try {
+                redisTemplate.convertAndSend(REBUILD_CHANNEL, "rebuild");
+                return;
+            } catch (Exception e) {
+                logger.warn("Failed to publish filter rebuild, rebuilding only this instance: {}", e.getMessage());
+            }
+        }
+        rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    /**
+     * Rebuilds the filter from the users table, dropping emails of deleted
+     * accounts and resetting the false-positive statistics.
+     *
+     * @return whether a rebuild ran; false if one was already in progress or it failed
+     */
+    @Scheduled(
+            fixedDelayString = "${registered-emails.rebuild-interval-ms:21600000}",
+            initialDelayString = "${registered-emails.rebuild-interval-ms:21600000}")
+    public boolean rebuild() {
+        if (!building.compareAndSet(false, true)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        BloomFilter fresh = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = fresh;
+        try {
+            String after = "";
+            List<String> page;
+            do {
+                page = userRepository.findEmailsAfter(after, PageRequest.of(0, PAGE_SIZE));
+                page.forEach(fresh::put);
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1);
+                }
+            } while (page.size() == PAGE_SIZE);
+            filter = fresh;
+            filtered.reset();
+            falsePositives.reset();
+            absent.invalidateAll();
+            logger.info(
+                    "Built registered email filter with {} emails in {} ms",
+                    fresh.insertions(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to build registered email filter, keeping the current one: {}", e.getMessage());
+            return false;
+        } finally {
+            rebuilding = null;
+            building.set(false);
+        }
+    }
+
+    /**
+     * Unregistered emails the filter let through, as a share of all
+     * unregistered emails checked since the last rebuild.
+     */
+    public double observedFalsePositiveRate() {
+        long misses = falsePositives.sum();
+        long negatives = filtered.sum() + misses;
+        return negatives == 0 ? 0 : (double) misses / negatives;
+    }
+
+    public long size() {
+        BloomFilter current = filter;
+        return current != null ? current.insertions() : 0;
+    }
+
+    private void remember(String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+        BloomFilter inProgress = rebuilding;
+        if (inProgress != null) {
+            inProgress.put(email);
+        }
+        absent.invalidate(email);
+    }
+}
@@ -0,0 +1,119 @@
+package org.solace.scholar_ai.user_service.service.auth;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.model.UserIdentityProvider;
+import org.solace.scholar_ai.user_service.model.UserProfile;
+import org.solace.scholar_ai.user_service.model.UserRole;
+import org.solace.scholar_ai.user_service.repository.UserIdentityProviderRepository;
+import org.solace.scholar_ai.user_service.repository.UserRepository;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Finds or creates the local account behind a social login.
+ *
+ * <p>Accounts are keyed by {@code (provider, provider_user_id)}, which is unique
+ * in the database. A new account's user, identity provider and profile rows are
+ * written in one transaction through a single cascading save. Two concurrent
+ * first logins cannot both create an account: the loser fails on the unique
+ * index and should call {@link #findExisting} to pick up the winner's account.
+ *
+ * <p>Social accounts have no usable password, so they store
+ * {@link #SOCIAL_LOGIN_PASSWORD}, which is not a hash and never matches.
+ */
+@Service
+@RequiredArgsConstructor
+public class SocialAccountProvisioner {
+
+    /** Stored instead of a password hash for accounts that only sign in through a provider. */
+    public static final String SOCIAL_LOGIN_PASSWORD = "{social}!";
+
+    private final UserRepository userRepository;
+    private final UserIdentityProviderRepository userIdentityProviderRepository;
+    private final UserLoadingService userLoadingService;
+    private final RegisteredEmailIndex registeredEmailIndex;
+
+    /**
+     * Result of provisioning.
+     *
+     * @param user    the account to sign in
+     * @param created whether the account was created by this call
+     */
+    public record Provisioned(User user, boolean created) {}
+
+    public static boolean isSocialLoginPassword(String encodedPassword) {
+        return SOCIAL_LOGIN_PASSWORD.equals(encodedPassword);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<User> findExisting(String provider, String providerUserId) {
+        return userIdentityProviderRepository
+                .findByProviderAndProviderUserId(provider, providerUserId)
+                .map(UserIdentityProvider::getUser);
+    }
+
+    /**
+     * @param provider       provider name, e.g. {@code GOOGLE}
+     * @param providerUserId the user's stable id at the provider
+     * @param email          verified email reported by the provider
+     * @throws BadCredentialsException if the email belongs to a password or other-provider account
+     */
+    @Transactional
+    public Provisioned provision(String provider, String providerUserId, String email) {
+        Optional<User> linked = findExisting(provider, providerUserId);
+        if (linked.isPresent()) {
+            return new Provisioned(linked.get(), false);
+        }
+
+        Optional<User> byEmail = userRepository.findWithIdentityProvidersByEmail(email);
+        if (byEmail.isPresent()) {
+            User existingUser = byEmail.get();
+            List<UserIdentityProvider> providers = existingUser.getIdentityProviders();
+            if (providers == null || providers.isEmpty()) {
+                throw new BadCredentialsException(
+                        "This email is registered with a password. Please log in using email and password.");
+            }
+            // Accounts linked before provider ids were the lookup key
+            if (providers.stream().anyMatch(p -> provider.equals(p.getProvider()))) {
+                return new Provisioned(existingUser, false);
+            }
+            throw new BadCredentialsException(
+                    "This email is already registered with another provider. Please use the original login method.");
+        }
+
+        Instant now = Instant.now();
+        User user = new User();
+        user.setEmail(email);
+        user.setEncryptedPassword(SOCIAL_LOGIN_PASSWORD);
+        user.setRole(UserRole.USER);
+        user.setEmailConfirmed(true); // Provider emails are verified
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+
+        UserIdentityProvider identityProvider = new UserIdentityProvider();
+        identityProvider.setUser(user);
+        identityProvider.setProvider(provider);
+        identityProvider.setProviderUserId(providerUserId);
+        identityProvider.setCreatedAt(now);
+        identityProvider.setUpdatedAt(now);
+        user.setIdentityProviders(new ArrayList<>(List.of(identityProvider)));
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setCreatedAt(now);
+        profile.setUpdatedAt(now);
+        user.setProfile(profile);
+
+        // Flush here so a concurrent first login fails on the unique indexes inside this call
+        User saved = userRepository.saveAndFlush(user);
+        userLoadingService.evict(email);
+        registeredEmailIndex.add(email);
+        return new Provisioned(saved, true);
+    }
+}
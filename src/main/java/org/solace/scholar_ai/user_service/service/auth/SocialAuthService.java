@@ -1,10 +1,7 @@
 package org.solace.scholar_ai.user_service.service.auth;
 
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,23 +9,17 @@ import org.solace.scholar_ai.user_service.dto.auth.AuthResponse;
 import org.solace.scholar_ai.user_service.dto.auth.providers.GitHubEmailDTO;
 import org.solace.scholar_ai.user_service.dto.auth.providers.GitHubUserDTO;
 import org.solace.scholar_ai.user_service.model.User;
-import org.solace.scholar_ai.user_service.model.UserIdentityProvider;
-import org.solace.scholar_ai.user_service.model.UserProfile;
-import org.solace.scholar_ai.user_service.model.UserRole;
-import org.solace.scholar_ai.user_service.repository.UserIdentityProviderRepository;
-import org.solace.scholar_ai.user_service.repository.UserProfileRepository;
-import org.solace.scholar_ai.user_service.repository.UserRepository;
 import org.solace.scholar_ai.user_service.security.GoogleVerifierUtil;
 import org.solace.scholar_ai.user_service.security.JwtUtils;
 import org.solace.scholar_ai.user_service.service.notification.NotificationService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -40,12 +31,9 @@ public class SocialAuthService {
     private static final Logger logger = LoggerFactory.getLogger(SocialAuthService.class);
     private final JwtUtils jwtUtils;
     private final RefreshTokenService refreshTokenService;
-    private final UserIdentityProviderRepository userIdentityProviderRepository;
-    private final UserProfileRepository userProfileRepository;
+    private final SocialAccountProvisioner socialAccountProvisioner;
     private final GoogleVerifierUtil googleVerifierUtil;
     private final RestTemplate restTemplate;
-    private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
     private final NotificationService notificationService;
 
     @Value("${spring.github.client-id}")
@@ -58,91 +46,21 @@ public class SocialAuthService {
     private String githubRedirectUri;
 
     public AuthResponse loginWithGoogle(String idTokenString) {
-        GoogleIdToken.Payload payload = googleVerifierUtil.verify(idTokenString);
+        GoogleVerifierUtil.GoogleIdentity identity = googleVerifierUtil.verify(idTokenString);
 
-        if (payload == null) {
+        if (identity == null) {
             throw new BadCredentialsException("Invalid Google ID token");
         }
 
-        String email = payload.getEmail();
-        String providerId = payload.getSubject();
-        String name = (String) payload.get("name");
+        String email = identity.email();
+        String providerId = identity.subject();
+        String name = identity.name();
 
         if (email == null || email.isEmpty()) {
             throw new IllegalArgumentException("Email not found in Google ID token payload.");
         }
 
-        // Check if user exists with this email
-        if (userRepository.findByEmail(email).isPresent()) {
-            User existingUser = userRepository.findByEmail(email).get();
-
-            // Check if user has Google identity provider
-            if (userIdentityProviderRepository
-                    .findByUserEmailAndProvider(email, "GOOGLE")
-                    .isPresent()) {
-                return buildTokensForUser(existingUser);
-            } else {
-                // User exists but not with Google - check if they have other providers
-                if (userIdentityProviderRepository.findByUserEmail(email).isPresent()) {
-                    throw new BadCredentialsException(
-                            "This email is already registered with another provider. Please use the original login method.");
-                } else {
-                    // User exists with password - not allowed to use Google
-                    throw new BadCredentialsException(
-                            "This email is registered with a password. Please log in using email and password.");
-                }
-            }
-        }
-
-        // Create new user
-        String randomPassword = UUID.randomUUID().toString();
-        String encodedPassword = passwordEncoder.encode(randomPassword);
-
-        User newUser = new User();
-        newUser.setEmail(email);
-        newUser.setEncryptedPassword(encodedPassword);
-        newUser.setRole(UserRole.USER);
-        newUser.setEmailConfirmed(true); // Google emails are verified
-        newUser.setCreatedAt(Instant.now());
-        newUser.setUpdatedAt(Instant.now());
-
-        User savedUser = userRepository.save(newUser);
-
-        // Create Google identity provider mapping
-        UserIdentityProvider identityProvider = new UserIdentityProvider();
-        identityProvider.setUser(savedUser);
-        identityProvider.setProvider("GOOGLE");
-        identityProvider.setProviderUserId(providerId);
-        identityProvider.setCreatedAt(Instant.now());
-        identityProvider.setUpdatedAt(Instant.now());
-
-        userIdentityProviderRepository.save(identityProvider);
-
-        // Create empty user profile
-        UserProfile userProfile = new UserProfile();
-        userProfile.setUser(savedUser);
-        userProfile.setCreatedAt(Instant.now());
-        userProfile.setUpdatedAt(Instant.now());
-        userProfileRepository.save(userProfile);
-
-        // Send welcome notification for new user
-        try {
-            String userName = name != null && !name.isEmpty() ? name : email.split("@")[0];
-            notificationService.sendWelcomeEmail(email, userName);
-            logger.info("Welcome notification sent successfully for new Google user: {}", email);
-        } catch (Exception e) {
-            // Log error but don't fail the registration process
-            // In production, you might want to implement retry logic
-            logger.error("Failed to send welcome notification for new Google user: {}", email, e);
-        }
-
-        // Generate tokens
-        String accessToken = jwtUtils.generateAccessToken(savedUser.getEmail());
-        String refreshToken = jwtUtils.generateRefreshToken(savedUser.getEmail());
-        refreshTokenService.saveRefreshToken(savedUser.getEmail(), refreshToken);
-
-        return new AuthResponse(
-                accessToken, refreshToken, savedUser.getEmail(), savedUser.getId(), savedUser.getRole());
+        return completeSocialLogin("GOOGLE", providerId, email, name);
     }
 
     // login with github
@@ -161,76 +79,34 @@ public class SocialAuthService {
             throw new IllegalArgumentException("Email not found in Github user profile");
         }
 
-        // Check if user exists with this email
-        if (userRepository.findByEmail(email).isPresent()) {
-            User existingUser = userRepository.findByEmail(email).get();
-
-            // Check if user has GitHub identity provider
-            if (userIdentityProviderRepository
-                    .findByUserEmailAndProvider(email, "GITHUB")
-                    .isPresent()) {
-                return buildTokensForUser(existingUser);
-            } else {
-                // User exists but not with GitHub - check if they have other providers
-                if (userIdentityProviderRepository.findByUserEmail(email).isPresent()) {
-                    throw new BadCredentialsException(
-                            "This email is already registered with another provider. Please use the original login method.");
-                } else {
-                    // User exists with password - not allowed to use GitHub
-                    throw new BadCredentialsException("This email is already registered with a password!");
-                }
-            }
-        }
+        return completeSocialLogin("GITHUB", providerId, email, name);
+    }
 
-        // Create new user
-        String randomPassword = UUID.randomUUID().toString();
-        String encodedPassword = passwordEncoder.encode(randomPassword);
-
-        User newUser = new User();
-        newUser.setEmail(email);
-        newUser.setEncryptedPassword(encodedPassword);
-        newUser.setRole(UserRole.USER);
-        newUser.setEmailConfirmed(true); // GitHub emails are verified
-        newUser.setCreatedAt(Instant.now());
-        newUser.setUpdatedAt(Instant.now());
-
-        User savedUser = userRepository.save(newUser);
-
-        // Create GitHub identity provider mapping
-        UserIdentityProvider identityProvider = new UserIdentityProvider();
-        identityProvider.setUser(savedUser);
-        identityProvider.setProvider("GITHUB");
-        identityProvider.setProviderUserId(providerId);
-        identityProvider.setCreatedAt(Instant.now());
-        identityProvider.setUpdatedAt(Instant.now());
-
-        userIdentityProviderRepository.save(identityProvider);
-
-        // Create empty user profile
-        UserProfile userProfile = new UserProfile();
-        userProfile.setUser(savedUser);
-        userProfile.setCreatedAt(Instant.now());
-        userProfile.setUpdatedAt(Instant.now());
-        userProfileRepository.save(userProfile);
-
-        // Send welcome notification for new user
+    // find or create the account, welcoming users on their first login
+    private AuthResponse completeSocialLogin(String provider, String providerId, String email, String name) {
+        SocialAccountProvisioner.Provisioned provisioned;
         try {
-            String userName = name != null && !name.isEmpty() ? name : email.split("@")[0];
-            notificationService.sendWelcomeEmail(email, userName);
-            logger.info("Welcome notification sent successfully for new GitHub user: {}", email);
-        } catch (Exception e) {
-            // Log error but don't fail the registration process
-            // In production, you might want to implement retry logic
-            logger.error("Failed to send welcome notification for new GitHub user: {}", email, e);
+            provisioned = socialAccountProvisioner.provision(provider, providerId, email);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent first login for the same account created it first
+            User winner =
+                    socialAccountProvisioner.findExisting(provider, providerId).orElseThrow(() -> e);
+            provisioned = new SocialAccountProvisioner.Provisioned(winner, false);
         }
 
-        // Generate tokens
-        String jwtAccessToken = jwtUtils.generateAccessToken(savedUser.getEmail());
-        String jwtRefreshToken = jwtUtils.generateRefreshToken(savedUser.getEmail());
-        refreshTokenService.saveRefreshToken(savedUser.getEmail(), jwtRefreshToken);
+        if (provisioned.created()) {
+            try {
+                String userName = name != null && !name.isEmpty() ? name : email.split("@")[0];
+                notificationService.sendWelcomeEmail(email, userName);
+                logger.info("Welcome notification sent successfully for new {} user: {}", provider, email);
+            } catch (Exception e) {
+                // Log error but don't fail the registration process
+                // In production, you might want to implement retry logic
+                logger.error("Failed to send welcome notification for new {} user: {}", provider, email, e);
+            }
+        }
 
-        return new AuthResponse(
-                jwtAccessToken, jwtRefreshToken, savedUser.getEmail(), savedUser.getId(), savedUser.getRole());
+        return buildTokensForUser(provisioned.user());
     }
 
     // exchange code for access token
@@ -273,12 +149,14 @@ public class SocialAuthService {
 
         GitHubUserDTO userDTO = response.getBody();
 
-        // Fetch email if null
+        // Use the primary verified email if the profile email is private; most profiles
+        // have a public email, so the extra call is only made when needed
         if (userDTO.getEmail() == null) {
-            ResponseEntity<GitHubEmailDTO[]> emailResponse = restTemplate.exchange(
-                    "https://api.github.com/user/emails", HttpMethod.GET, entity, GitHubEmailDTO[].class);
+            GitHubEmailDTO[] emailList = restTemplate
+                    .exchange("https://api.github.com/user/emails", HttpMethod.GET, entity, GitHubEmailDTO[].class)
+                    .getBody();
 
-            for (GitHubEmailDTO mail : emailResponse.getBody()) {
+            for (GitHubEmailDTO mail : emailList) {
                 if (mail.isPrimary() && mail.isVerified()) {
                     userDTO.setEmail(mail.getEmail());
                     break;
@@ -290,7 +168,7 @@ public class SocialAuthService {
     }
 
     private AuthResponse buildTokensForUser(User user) {
-        String accessToken = jwtUtils.generateAccessToken(user.getEmail());
+        String accessToken = jwtUtils.generateAccessToken(user);
         String refreshToken = jwtUtils.generateRefreshToken(user.getEmail());
         refreshTokenService.saveRefreshToken(user.getEmail(), refreshToken);
 
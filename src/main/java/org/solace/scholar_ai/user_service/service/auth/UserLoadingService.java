@@ -1,30 +1,69 @@
 package org.solace.scholar_ai.user_service.service.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
-import org.solace.scholar_ai.user_service.model.User;
-import org.solace.scholar_ai.user_service.model.UserIdentityProvider;
-import org.solace.scholar_ai.user_service.repository.UserIdentityProviderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.user_service.repository.LoginAccount;
 import org.solace.scholar_ai.user_service.repository.UserRepository;
+import org.solace.scholar_ai.user_service.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
+/**
+ * Loads users for authentication with a single {@link LoginAccount} query.
+ * Results are kept in a size-bounded local
+ * cache with a TTL; when a user's role, password, confirmation status or
+ * identity providers change, {@link #evict(String)} drops the entry on every
+ * instance through a Redis pub/sub channel.
+ */
 @Service
-@Transactional
 public class UserLoadingService implements UserDetailsService {
+    private static final Logger logger = LoggerFactory.getLogger(UserLoadingService.class);
+    private static final String CACHE_NAME = "users.details";
+    private static final String EVICTION_CHANNEL = "user_details:evict";
 
     private final UserRepository userRepository;
-    private final UserIdentityProviderRepository userIdentityProviderRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Cache<String, UserDetails> cache;
+    private final boolean cacheEnabled;
 
     public UserLoadingService(
-            UserRepository userRepository, UserIdentityProviderRepository userIdentityProviderRepository) {
+            UserRepository userRepository,
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${security.user-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${security.user-cache.max-size:10000}") long maxSize,
+            @Value("${security.user-cache.ttl-ms:300000}") long ttlMs) {
         this.userRepository = userRepository;
-        this.userIdentityProviderRepository = userIdentityProviderRepository;
+        this.redisTemplate = redisTemplate;
+        this.cacheEnabled = cacheEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        listenerContainer.addMessageListener(
+                (message, pattern) -> cache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EVICTION_CHANNEL));
     }
 
     @Override
@@ -32,30 +71,61 @@ public class UserLoadingService implements UserDetailsService {
         if (!StringUtils.hasText(username)) {
             throw new IllegalArgumentException("Username cannot be null or empty");
         }
+        // Unknown users throw from the loader and are therefore never cached
+        return cacheEnabled ? cache.get(username, this::loadFromDatabase) : loadFromDatabase(username);
+    }
 
-        User user = userRepository
-                .findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("No user found with email: " + username));
+    /**
+     * Drops the cached details of a user on every instance. When called inside a
+     * transaction the eviction is deferred until it commits, so a concurrent
+     * load cannot re-cache the old row.
+     *
+     * @param email the user's email (the username)
+     */
+    public void evict(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishEviction(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishEviction(email);
+            }
+        });
+    }
 
-        // Check if user has identity providers (social login)
-        UserIdentityProvider identityProvider = userIdentityProviderRepository.findByUserId(user.getId());
-        boolean isSocialUser = identityProvider != null;
+    private void publishEviction(String email) {
+        cache.invalidate(email);
+        try {
+            redisTemplate.convertAndSend(EVICTION_CHANNEL, email);
+        } catch (Exception e) {
+            logger.warn(
+                    "Failed to publish user cache eviction for '{}', other instances expire it by TTL: {}",
+                    email,
+                    e.getMessage());
+        }
+    }
+
+    private UserDetails loadFromDatabase(String username) {
+        LoginAccount account = userRepository
+                .findLoginAccountByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("No user found with email: " + username));
 
         // Create authority from user role
         GrantedAuthority grantedAuthority =
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
+                new SimpleGrantedAuthority("ROLE_" + account.role().name());
         List<GrantedAuthority> authorityList = List.of(grantedAuthority);
 
         // For social users, use empty password since they authenticate through OAuth
-        String password = isSocialUser ? "" : user.getEncryptedPassword();
+        String password = account.socialAccount() ? "" : account.encryptedPassword();
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
+        return new AuthenticatedUser(
+                account.id(),
+                account.email(),
                 password,
-                user.isEmailConfirmed(), // enabled
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
+                account.emailConfirmed(), // enabled
+                account.socialAccount(),
                 authorityList);
     }
 }
@@ -1,14 +1,20 @@
 package org.solace.scholar_ai.user_service.service.user;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import org.solace.scholar_ai.user_service.dto.user.UserProfileDTO;
 import org.solace.scholar_ai.user_service.dto.user.UserProfileResponseDTO;
-import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.exception.CustomException;
+import org.solace.scholar_ai.user_service.exception.ErrorCode;
 import org.solace.scholar_ai.user_service.model.UserProfile;
+import org.solace.scholar_ai.user_service.repository.ProfileVersion;
 import org.solace.scholar_ai.user_service.repository.UserProfileRepository;
-import org.solace.scholar_ai.user_service.repository.UserRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,76 +23,100 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserProfileService {
 
     private final UserProfileRepository userProfileRepository;
-    private final UserRepository userRepository;
 
     @Transactional(readOnly = true)
     public UserProfileResponseDTO getProfileByEmail(String email) {
-        User user = userRepository
-                .findByEmail(email)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with email: " + email));
-
-        UserProfile userProfile = userProfileRepository.findByUserId(user.getId());
+        // One query joining users; the user is not loaded, only its id is read from the proxy
+        UserProfile userProfile = userProfileRepository.findByUserEmail(email);
 
         if (userProfile == null) {
             throw new IllegalArgumentException("User profile not found for user: " + email);
         }
 
-        return convertToResponseDTO(userProfile, user.getId());
+        return convertToResponseDTO(userProfile, userProfile.getUser().getId());
+    }
+
+    /**
+     * The profile's version and last update time, read without loading the
+     * profile, for answering conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProfileVersion> getProfileVersionByEmail(String email) {
+        return userProfileRepository.findVersionByUserEmail(email);
     }
 
+    /**
+     * Applies the non-null fields of the DTO to the user's profile.
+     *
+     * <p>Only fields whose value actually changes are written, and a request
+     * that changes nothing neither touches the row nor bumps
+     * {@code updatedAt}. Every write checks the profile's version, so a
+     * concurrent update made after this one read the row is never silently
+     * overwritten.
+     *
+     * @param expected profile and version the client last read, from its
+     *                 {@code If-Match} header; null to skip the check
+     * @throws CustomException with 412 if the profile is not the expected one
+     *                         at the expected version, or changes before this
+     *                         update is written
+     */
     @Transactional
-    public UserProfileResponseDTO updateProfile(UUID userId, UserProfileDTO userProfileDTO) {
+    public UserProfileResponseDTO updateProfile(UUID userId, UserProfileDTO userProfileDTO, ProfileVersion expected) {
         UserProfile existingProfile = userProfileRepository.findByUserId(userId);
 
         if (existingProfile == null) {
             throw new IllegalArgumentException("User profile not found for user ID: " + userId);
         }
-
-        // Update fields if they are not null in the DTO
-        if (userProfileDTO.getFullName() != null) {
-            existingProfile.setFullName(userProfileDTO.getFullName());
-        }
-        if (userProfileDTO.getAvatarUrl() != null) {
-            existingProfile.setAvatarUrl(userProfileDTO.getAvatarUrl());
-        }
-        if (userProfileDTO.getPhoneNumber() != null) {
-            existingProfile.setPhoneNumber(userProfileDTO.getPhoneNumber());
-        }
-        if (userProfileDTO.getDateOfBirth() != null) {
-            existingProfile.setDateOfBirth(userProfileDTO.getDateOfBirth());
-        }
-        if (userProfileDTO.getBio() != null) {
-            existingProfile.setBio(userProfileDTO.getBio());
-        }
-        if (userProfileDTO.getAffiliation() != null) {
-            existingProfile.setAffiliation(userProfileDTO.getAffiliation());
-        }
-        if (userProfileDTO.getPositionTitle() != null) {
-            existingProfile.setPositionTitle(userProfileDTO.getPositionTitle());
-        }
-        if (userProfileDTO.getResearchInterests() != null) {
-            existingProfile.setResearchInterests(userProfileDTO.getResearchInterests());
-        }
-        if (userProfileDTO.getGoogleScholarUrl() != null) {
-            existingProfile.setGoogleScholarUrl(userProfileDTO.getGoogleScholarUrl());
-        }
-        if (userProfileDTO.getPersonalWebsiteUrl() != null) {
-            existingProfile.setPersonalWebsiteUrl(userProfileDTO.getPersonalWebsiteUrl());
-        }
-        if (userProfileDTO.getOrcidId() != null) {
-            existingProfile.setOrcidId(userProfileDTO.getOrcidId());
-        }
-        if (userProfileDTO.getLinkedInUrl() != null) {
-            existingProfile.setLinkedInUrl(userProfileDTO.getLinkedInUrl());
-        }
-        if (userProfileDTO.getTwitterUrl() != null) {
-            existingProfile.setTwitterUrl(userProfileDTO.getTwitterUrl());
+        if (expected != null && !expected.matches(existingProfile.getId(), existingProfile.getVersion())) {
+            throw profileModified(userId);
+        }
+
+        // Update fields if they are not null in the DTO and differ from the stored value
+        boolean changed =
+                apply(userProfileDTO.getFullName(), existingProfile::getFullName, existingProfile::setFullName);
+        changed |= apply(userProfileDTO.getAvatarUrl(), existingProfile::getAvatarUrl, existingProfile::setAvatarUrl);
+        changed |= apply(
+                userProfileDTO.getPhoneNumber(), existingProfile::getPhoneNumber, existingProfile::setPhoneNumber);
+        changed |= apply(
+                userProfileDTO.getDateOfBirth(), existingProfile::getDateOfBirth, existingProfile::setDateOfBirth);
+        changed |= apply(userProfileDTO.getBio(), existingProfile::getBio, existingProfile::setBio);
+        changed |= apply(
+                userProfileDTO.getAffiliation(), existingProfile::getAffiliation, existingProfile::setAffiliation);
+        changed |= apply(
+                userProfileDTO.getPositionTitle(),
+                existingProfile::getPositionTitle,
+                existingProfile::setPositionTitle);
+        changed |= apply(
+                userProfileDTO.getResearchInterests(),
+                existingProfile::getResearchInterests,
+                existingProfile::setResearchInterests);
+        changed |= apply(
+                userProfileDTO.getGoogleScholarUrl(),
+                existingProfile::getGoogleScholarUrl,
+                existingProfile::setGoogleScholarUrl);
+        changed |= apply(
+                userProfileDTO.getPersonalWebsiteUrl(),
+                existingProfile::getPersonalWebsiteUrl,
+                existingProfile::setPersonalWebsiteUrl);
+        changed |= apply(userProfileDTO.getOrcidId(), existingProfile::getOrcidId, existingProfile::setOrcidId);
+        changed |= apply(
+                userProfileDTO.getLinkedInUrl(), existingProfile::getLinkedInUrl, existingProfile::setLinkedInUrl);
+        changed |=
+                apply(userProfileDTO.getTwitterUrl(), existingProfile::getTwitterUrl, existingProfile::setTwitterUrl);
+
+        if (!changed) {
+            return convertToResponseDTO(existingProfile, userId);
         }
 
         existingProfile.setUpdatedAt(Instant.now());
 
-        UserProfile savedProfile = userProfileRepository.save(existingProfile);
-        return convertToResponseDTO(savedProfile, userId);
+        try {
+            // Flush here so a lost race surfaces as a 412 and the response carries the new version
+            UserProfile savedProfile = userProfileRepository.saveAndFlush(existingProfile);
+            return convertToResponseDTO(savedProfile, userId);
+        } catch (OptimisticLockingFailureException e) {
+            throw profileModified(userId);
+        }
     }
 
     @Transactional
@@ -137,6 +167,22 @@ public class UserProfileService {
                 .twitterUrl(userProfile.getTwitterUrl())
                 .createdAt(userProfile.getCreatedAt())
                 .updatedAt(userProfile.getUpdatedAt())
+                .version(userProfile.getVersion())
                 .build();
     }
+
+    private static <T> boolean apply(T value, Supplier<T> current, Consumer<T> setter) {
+        if (value == null || value.equals(current.get())) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    private static CustomException profileModified(UUID userId) {
+        return new CustomException(
+                "Profile was modified by another request for user ID: " + userId,
+                HttpStatus.PRECONDITION_FAILED,
+                ErrorCode.PRECONDITION_FAILED);
+    }
 }
@@ -0,0 +1,86 @@
+package org.solace.scholar_ai.user_service.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe count-min sketch for strings.
+ *
+ * <p>Estimates how many times each key was added using {@code depth} rows of
+ * {@code width} counters, independent of the number of distinct keys. An
+ * estimate is never below the true count and exceeds it by at most
+ * {@code e / width} of the total added, with probability
+ * {@code 1 - exp(-depth)}. {@link #halve()} ages all counts so that the sketch
+ * tracks recent activity.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+    private final int mask;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param depth number of rows, each with its own hash
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        int rounded = Integer.highestOneBit(width);
+        this.width = rounded < width ? rounded << 1 : rounded;
+        this.depth = depth;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(Math.multiplyExact(this.width, depth));
+    }
+
+    /**
+     * Adds {@code count} occurrences of {@code key}.
+     *
+     * @return the estimated count of the key after the addition
+     */
+    public long add(String key, long count) {
+        long hash1 = Hashing.hash64(key, 0x9E3779B97F4A7C15L);
+        long hash2 = Hashing.hash64(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(row, hash1, hash2), count));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        long hash1 = Hashing.hash64(key, 0x9E3779B97F4A7C15L);
+        long hash2 = Hashing.hash64(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash1, hash2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter, so older occurrences weigh less than recent ones.
+     * Concurrent additions are not lost.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            long current;
+            do {
+                current = counters.get(i);
+            } while (current != 0 && !counters.compareAndSet(i, current, current >>> 1));
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    private int index(int row, long hash1, long hash2) {
+        return row * width + (int) ((hash1 + row * hash2) >>> 32 & mask);
+    }
+}
@@ -0,0 +1,25 @@
+package org.solace.scholar_ai.user_service.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Seeded 64-bit string hash shared by the probabilistic structures in this package.
+ */
+final class Hashing {
+
+    private Hashing() {}
+
+    // 64-bit FNV-1a over the UTF-8 bytes with a seeded start, finished with the SplitMix64 mixer
+    static long hash64(String value, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 27;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
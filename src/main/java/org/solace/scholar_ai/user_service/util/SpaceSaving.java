@@ -0,0 +1,109 @@
+package org.solace.scholar_ai.user_service.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the most frequent keys in a stream, in fixed memory.
+ *
+ * <p>Keeps at most {@code capacity} counters. When a new key arrives and all
+ * counters are taken, the smallest counter is reassigned to the new key and
+ * keeps its count, which is recorded as that key's possible overestimate. Any
+ * key whose true count exceeds {@code total / capacity} is guaranteed to be in
+ * the summary.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * A tracked key.
+     *
+     * @param key   the key
+     * @param count estimated occurrences, never below the true count
+     * @param error how much of {@code count} may have been inherited from evicted keys
+     */
+    public record Entry(String key, long count, long error) {}
+
+    public synchronized void offer(String key, long count) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(count, 0));
+            return;
+        }
+        // O(capacity) scan; the summary is small and only evicts on unseen keys
+        Map.Entry<String, Counter> smallest = null;
+        for (Map.Entry<String, Counter> candidate : counters.entrySet()) {
+            if (smallest == null || candidate.getValue().count < smallest.getValue().count) {
+                smallest = candidate;
+            }
+        }
+        long inherited = smallest.getValue().count;
+        counters.remove(smallest.getKey());
+        counters.put(key, new Counter(inherited + count, inherited));
+    }
+
+    /**
+     * @return the tracked entry for the key, or null if the key is not in the summary
+     */
+    public synchronized Entry get(String key) {
+        Counter counter = counters.get(key);
+        return counter != null ? new Entry(key, counter.count, counter.error) : null;
+    }
+
+    /**
+     * @return up to {@code limit} tracked keys, highest count first
+     */
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> entries.add(new Entry(key, counter.count, counter.error)));
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Halves every count and drops keys whose count reaches zero.
+     */
+    public synchronized void halve() {
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            counter.count >>>= 1;
+            counter.error >>>= 1;
+            if (counter.count == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static final class Counter {
+        private long count;
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
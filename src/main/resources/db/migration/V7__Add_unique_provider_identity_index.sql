@@ -0,0 +1,30 @@
+-- One account per external identity, so concurrent first social logins cannot create duplicates.
+--
+-- Social login used to match accounts by email only, so a provider account whose email changed could be
+-- linked to a second user. Only the newest link of each identity is kept: it belongs to the account that
+-- login has resolved to since the change. The other user keeps its row and any password, but no longer
+-- signs in through that provider. To review the affected links before deploying:
+--
+--   SELECT provider, provider_user_id, user_id, created_at
+--   FROM user_identity_providers
+--   WHERE (provider, provider_user_id) IN (
+--       SELECT provider, provider_user_id FROM user_identity_providers
+--       GROUP BY provider, provider_user_id HAVING COUNT(*) > 1)
+--   ORDER BY provider, provider_user_id, created_at;
+DELETE FROM user_identity_providers stale
+WHERE EXISTS (
+    SELECT 1 FROM user_identity_providers newer
+    WHERE newer.provider = stale.provider
+      AND newer.provider_user_id = stale.provider_user_id
+      AND (COALESCE(newer.created_at, TIMESTAMP '1970-01-01 00:00:00')
+                > COALESCE(stale.created_at, TIMESTAMP '1970-01-01 00:00:00')
+           OR (COALESCE(newer.created_at, TIMESTAMP '1970-01-01 00:00:00')
+                   = COALESCE(stale.created_at, TIMESTAMP '1970-01-01 00:00:00')
+               AND newer.id > stale.id)));
+
+CREATE UNIQUE INDEX idx_user_identity_providers_provider_identity
+    ON user_identity_providers(provider, provider_user_id);
+
+-- Covered by the unique index above
+DROP INDEX IF EXISTS idx_user_identity_providers_unique;
+DROP INDEX IF EXISTS idx_user_identity_providers_provider_user_id;
@@ -0,0 +1,6 @@
+-- Optimistic locking for profile updates; every update bumps the version and checks the one it read
+ALTER TABLE user_profiles
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- #!postgresql
+COMMENT ON COLUMN user_profiles.version IS 'Optimistic lock version, exposed as the profile ETag';
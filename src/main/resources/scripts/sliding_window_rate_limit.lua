@@ -0,0 +1,35 @@
+-- Sliding-window rate limit across several keys, decided and recorded atomically.
+-- KEYS:    one sorted set per limited dimension (e.g. account, client IP)
+-- ARGV[1]: window length in milliseconds
+-- ARGV[2]: unique member recorded for this attempt
+-- ARGV[3..]: limit for each key, in KEYS order
+-- Returns {1, 0} when allowed (and recorded in every key),
+-- or {0, retryAfterMs} when any key is at its limit (nothing recorded).
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local window = tonumber(ARGV[1])
+
+local retry = 0
+for i, key in ipairs(KEYS) do
+    redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window)
+    if redis.call('ZCARD', key) >= tonumber(ARGV[2 + i]) then
+        local oldest = redis.call('ZRANGE', key, 0, 0, 'WITHSCORES')
+        -- A limit of 0 blocks an empty key; wait out a whole window
+        local wait = window
+        if oldest[2] then
+            wait = tonumber(oldest[2]) + window - now
+        end
+        if wait > retry then
+            retry = wait
+        end
+    end
+end
+if retry > 0 then
+    return {0, retry}
+end
+
+for _, key in ipairs(KEYS) do
+    redis.call('ZADD', key, now, ARGV[2])
+    redis.call('PEXPIRE', key, window)
+end
+return {1, 0}
@@ -0,0 +1,76 @@
+package org.solace.scholar_ai.user_service.controller.user;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.user_service.dto.user.UserProfileResponseDTO;
+import org.solace.scholar_ai.user_service.repository.ProfileVersion;
+import org.solace.scholar_ai.user_service.repository.UserRepository;
+import org.solace.scholar_ai.user_service.service.user.UserProfileService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class UserProfileControllerTest {
+
+    private static final String EMAIL = "ada@example.com";
+
+    private final UUID profileId = UUID.randomUUID();
+    private final Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private UserProfileService userProfileService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userProfileService = mock(UserProfileService.class);
+        UserProfileController controller = new UserProfileController(userProfileService, mock(UserRepository.class));
+        ReflectionTestUtils.setField(
+                controller, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        when(userProfileService.getProfileVersionByEmail(EMAIL))
+                .thenReturn(Optional.of(new ProfileVersion(profileId, 2L, updatedAt)));
+        when(userProfileService.getProfileByEmail(EMAIL))
+                .thenReturn(UserProfileResponseDTO.builder()
+                        .id(profileId)
+                        .fullName("Ada Lovelace")
+                        .updatedAt(updatedAt)
+                        .version(2L)
+                        .build());
+    }
+
+    @Test
+    void testCurrentTagIsAnsweredWithoutLoadingTheProfile() throws Exception {
+        mockMvc.perform(get("/api/v1/profile")
+                        .principal(() -> EMAIL)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + profileId + "-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + profileId + "-2\""))
+                .andExpect(header().string(HttpHeaders.VARY, "Authorization, Cookie"))
+                .andExpect(content().string(""));
+
+        verify(userProfileService, never()).getProfileByEmail(EMAIL);
+    }
+
+    @Test
+    void testAnotherProfilesTagAtTheSameVersionIsNotMatched() throws Exception {
+        mockMvc.perform(get("/api/v1/profile")
+                        .principal(() -> EMAIL)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + UUID.randomUUID() + "-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + profileId + "-2\""))
+                .andExpect(header().string(HttpHeaders.VARY, "Authorization, Cookie"))
+                .andExpect(jsonPath("$.data.fullName").value("Ada Lovelace"));
+    }
+}
@@ -0,0 +1,250 @@
+package org.solace.scholar_ai.user_service.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.user_service.controller.notification.NotificationController;
+import org.solace.scholar_ai.user_service.controller.user.UserProfileController;
+import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.model.UserIdentityProvider;
+import org.solace.scholar_ai.user_service.model.UserProfile;
+import org.solace.scholar_ai.user_service.model.UserRole;
+import org.solace.scholar_ai.user_service.security.AuthenticatedUser;
+import org.solace.scholar_ai.user_service.service.auth.RegisteredEmailIndex;
+import org.solace.scholar_ai.user_service.service.auth.SocialAccountProvisioner;
+import org.solace.scholar_ai.user_service.service.auth.UserLoadingService;
+import org.solace.scholar_ai.user_service.service.notification.NotificationService;
+import org.solace.scholar_ai.user_service.service.user.UserProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Pins the number of SQL statements each endpoint issues, from loading the
+ * authenticated user to the write the request commits, so a changed mapping,
+ * query or call sequence that loads more than the endpoint needs fails here.
+ */
+@DataJpaTest(
+        properties = {
+            "spring.flyway.enabled=false",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.generate_statistics=true"
+        })
+@ActiveProfiles("test")
+@Import(UserProfileService.class)
+class FetchPlanQueryCountTest {
+
+    private static final String READER_EMAIL = "reader@example.com";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserIdentityProviderRepository userIdentityProviderRepository;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    private UserLoadingService userLoadingService;
+    private SocialAccountProvisioner socialAccountProvisioner;
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private UUID passwordUserId;
+    private UUID readerProfileId;
+    private UUID socialUserId;
+
+    @BeforeEach
+    void setUp() {
+        User reader = persistUser(READER_EMAIL, "Ada Reader", null);
+        passwordUserId = reader.getId();
+        readerProfileId = reader.getProfile().getId();
+        socialUserId = persistUser("social@example.com", null, "GOOGLE").getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Cache disabled, so every request pays the user load a cold cache costs
+        userLoadingService = new UserLoadingService(
+                userRepository,
+                mock(RedisTemplate.class),
+                mock(RedisMessageListenerContainer.class),
+                new SimpleMeterRegistry(),
+                false,
+                1,
+                1);
+        socialAccountProvisioner = new SocialAccountProvisioner(
+                userRepository, userIdentityProviderRepository, userLoadingService, mock(RegisteredEmailIndex.class));
+
+        UserProfileController profileController = new UserProfileController(userProfileService, userRepository);
+        ReflectionTestUtils.setField(
+                profileController, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        profileController, new NotificationController(userRepository, mock(NotificationService.class)))
+                .build();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testLoginLoadsAccountInOneQuery() {
+        AuthenticatedUser account = (AuthenticatedUser) userLoadingService.loadUserByUsername("social@example.com");
+
+        assertEquals(socialUserId, account.getUserId());
+        assertTrue(account.isSocialAccount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testProfileGetLoadsUserVersionAndProfile() throws Exception {
+        mockMvc.perform(get("/api/v1/profile").with(authenticatedAs(READER_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.fullName").value("Ada Reader"))
+                .andExpect(jsonPath("$.data.userId").value(passwordUserId.toString()));
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUnchangedProfileGetLoadsUserAndVersionOnly() throws Exception {
+        mockMvc.perform(get("/api/v1/profile")
+                        .with(authenticatedAs(READER_EMAIL))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + readerProfileId + "-0\""))
+                .andExpect(status().isNotModified());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testProfileUpdateLoadsUserIdAndProfileThenWritesOnce() throws Exception {
+        mockMvc.perform(patch("/api/v1/profile")
+                        .with(authenticatedAs(READER_EMAIL))
+                        .header(HttpHeaders.IF_MATCH, "\"" + readerProfileId + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Ada Lovelace\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.version").value(1));
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testAvatarUploadLoadsUserIdAndProfileThenWritesOnce() throws Exception {
+        mockMvc.perform(multipart("/api/v1/profile/avatar")
+                        .file(new MockMultipartFile("avatar", "avatar.png", "image/png", new byte[] {1}))
+                        .with(authenticatedAs(READER_EMAIL)))
+                .andExpect(status().isOk());
+        // The update is written when the request's transaction commits
+        entityManager.flush();
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testAvatarDeleteLoadsUserIdAndProfileThenWritesOnce() throws Exception {
+        mockMvc.perform(delete("/api/v1/profile/avatar").with(authenticatedAs(READER_EMAIL)))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testNotificationSendLoadsRecipientInOneQuery() throws Exception {
+        mockMvc.perform(post("/api/v1/notifications/send")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":\"" + passwordUserId + "\",\"notificationType\":\"WELCOME\"}"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSocialLoginLoadsIdentityAndUserInOneQuery() {
+        SocialAccountProvisioner.Provisioned provisioned =
+                socialAccountProvisioner.provision("GOOGLE", "social@example.com-id", "social@example.com");
+
+        assertFalse(provisioned.created());
+        assertEquals(socialUserId, provisioned.user().getId());
+        assertEquals(UserRole.USER, provisioned.user().getRole());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSocialLoginOfEmailLinkedAccountChecksEmailInOneQuery() {
+        SocialAccountProvisioner.Provisioned provisioned =
+                socialAccountProvisioner.provision("GOOGLE", "id-before-provider-ids", "social@example.com");
+
+        assertFalse(provisioned.created());
+        assertEquals(socialUserId, provisioned.user().getId());
+        // Identity lookup by provider id, then the email lookup with its identities
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Access tokens that are not self-contained load the user in AuthTokenFilter before the controller runs
+    private RequestPostProcessor authenticatedAs(String email) {
+        return request -> {
+            UserDetails user = userLoadingService.loadUserByUsername(email);
+            request.setUserPrincipal(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+            return request;
+        };
+    }
+
+    private User persistUser(String email, String fullName, String provider) {
+        Instant now = Instant.now();
+        User user = new User();
+        user.setEmail(email);
+        user.setEncryptedPassword("hash");
+        user.setRole(UserRole.USER);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setFullName(fullName);
+        user.setProfile(profile);
+
+        if (provider != null) {
+            UserIdentityProvider identityProvider = new UserIdentityProvider();
+            identityProvider.setUser(user);
+            identityProvider.setProvider(provider);
+            identityProvider.setProviderUserId(email + "-id");
+            user.setIdentityProviders(List.of(identityProvider));
+        }
+        return entityManager.persist(user);
+    }
+}
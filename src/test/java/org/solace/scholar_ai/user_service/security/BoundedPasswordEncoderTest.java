@@ -0,0 +1,97 @@
+package org.solace.scholar_ai.user_service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.user_service.exception.CustomException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testDelegatesEncodeAndMatches() {
+        try (BoundedPasswordEncoder encoder =
+                new BoundedPasswordEncoder(new PlainEncoder(null), 1, 1, 1000, new SimpleMeterRegistry())) {
+            assertEquals("{plain}secret", encoder.encode("secret"));
+            assertTrue(encoder.matches("secret", "{plain}secret"));
+            assertFalse(encoder.matches("other", "{plain}secret"));
+        }
+    }
+
+    @Test
+    void testShedsRequestsWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder =
+                new BoundedPasswordEncoder(new PlainEncoder(release), 1, 1, 10_000, meterRegistry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            waitForGauge(meterRegistry, "security.password_hashing.active", 1);
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            waitForGauge(meterRegistry, "security.password_hashing.queue", 1);
+
+            CustomException shed = assertThrows(CustomException.class, () -> encoder.encode("c"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getStatus());
+
+            release.countDown();
+            assertEquals("{plain}a", running.get(5, TimeUnit.SECONDS));
+            assertEquals("{plain}b", queued.get(5, TimeUnit.SECONDS));
+            assertEquals(
+                    1,
+                    meterRegistry
+                            .get("security.password_hashing.rejected")
+                            .counter()
+                            .count());
+        }
+    }
+
+    @Test
+    void testShedsRequestsThatWaitedTooLong() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder =
+                new BoundedPasswordEncoder(new PlainEncoder(release), 1, 4, 50, meterRegistry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            waitForGauge(meterRegistry, "security.password_hashing.active", 1);
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals("{plain}a", running.get(5, TimeUnit.SECONDS));
+            Exception failure = assertThrows(Exception.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(CustomException.class, failure.getCause());
+        }
+    }
+
+    private static void waitForGauge(SimpleMeterRegistry meterRegistry, String name, double value)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() < value) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + name);
+            Thread.sleep(5);
+        }
+    }
+
+    private record PlainEncoder(CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
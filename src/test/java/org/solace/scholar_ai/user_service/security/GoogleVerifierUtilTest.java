@@ -0,0 +1,107 @@
+package org.solace.scholar_ai.user_service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+class GoogleVerifierUtilTest {
+
+    private static final String CLIENT_ID = "client.apps.googleusercontent.com";
+
+    @TempDir
+    Path tempDir;
+
+    private KeyPair keyPair;
+    private GoogleVerifierUtil verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyPair = Jwts.SIG.RS256.keyPair().build();
+        String jwks = "{\"keys\":["
+                + Jwks.json(Jwks.builder()
+                        .key((RSAPublicKey) keyPair.getPublic())
+                        .id("key-1")
+                        .build())
+                + "]}";
+        Path certs = tempDir.resolve("google-certs.json");
+        Files.writeString(certs, jwks);
+
+        verifier = new GoogleVerifierUtil(new RestTemplate(), new DefaultResourceLoader(), Runnable::run);
+        ReflectionTestUtils.setField(verifier, "clientId", CLIENT_ID);
+        ReflectionTestUtils.setField(verifier, "certsUrl", "http://localhost:1/unused");
+        ReflectionTestUtils.setField(verifier, "certsLocation", certs.toUri().toString());
+        ReflectionTestUtils.setField(verifier, "clockSkewSeconds", 60L);
+        verifier.init();
+    }
+
+    @Test
+    void testVerifiesTokenSignedWithPinnedKey() {
+        GoogleVerifierUtil.GoogleIdentity identity =
+                verifier.verify(token("key-1", CLIENT_ID, "https://accounts.google.com"));
+
+        assertNotNull(identity);
+        assertEquals("google-user-1", identity.subject());
+        assertEquals("user@example.com", identity.email());
+        assertTrue(identity.emailVerified());
+        assertEquals("Test User", identity.name());
+    }
+
+    @Test
+    void testRejectsWrongAudienceIssuerOrKey() {
+        assertNull(verifier.verify(token("key-1", "other-client", "https://accounts.google.com")));
+        assertNull(verifier.verify(token("key-1", CLIENT_ID, "https://evil.example.com")));
+        assertNull(verifier.verify(token("key-2", CLIENT_ID, "accounts.google.com")));
+        assertNull(verifier.verify("not-a-token"));
+    }
+
+    @Test
+    void testRejectsTokenSignedWithAnotherKey() {
+        KeyPair other = Jwts.SIG.RS256.keyPair().build();
+        String forged = Jwts.builder()
+                .header()
+                .keyId("key-1")
+                .and()
+                .subject("google-user-1")
+                .audience()
+                .add(CLIENT_ID)
+                .and()
+                .issuer("accounts.google.com")
+                .expiration(Date.from(Instant.now().plusSeconds(300)))
+                .signWith(other.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+
+        assertNull(verifier.verify(forged));
+    }
+
+    private String token(String kid, String audience, String issuer) {
+        return Jwts.builder()
+                .header()
+                .keyId(kid)
+                .and()
+                .subject("google-user-1")
+                .audience()
+                .add(List.of(audience))
+                .and()
+                .issuer(issuer)
+                .claims(Map.of("email", "user@example.com", "email_verified", true, "name", "Test User"))
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plusSeconds(300)))
+                .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+}
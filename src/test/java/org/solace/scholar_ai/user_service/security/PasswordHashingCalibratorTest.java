@@ -0,0 +1,58 @@
+package org.solace.scholar_ai.user_service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordHashingCalibratorTest {
+
+    private final PasswordHashingCalibrator calibrator = new PasswordHashingCalibrator(Duration.ofMillis(50), 1024);
+
+    @Test
+    void testLegacyBcryptHashesVerifyAndAreUpgraded() {
+        PasswordEncoder encoder = calibrator.createEncoder("bcrypt", 5);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertFalse(encoder.matches("wrong", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void testCurrentHashesAreNotUpgraded() {
+        PasswordEncoder encoder = calibrator.createEncoder("bcrypt", 5);
+        String current = encoder.encode("secret");
+
+        assertTrue(current.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("secret", current));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void testSwitchingAlgorithmUpgradesOldHashes() {
+        String bcrypt = calibrator.createEncoder("bcrypt", 4).encode("secret");
+        PasswordEncoder argon2 = calibrator.createEncoder("argon2id", 2);
+
+        assertTrue(argon2.matches("secret", bcrypt));
+        assertTrue(argon2.upgradeEncoding(bcrypt));
+
+        String rehashed = argon2.encode("secret");
+        assertTrue(rehashed.startsWith("{argon2id}$argon2id$"));
+        assertTrue(argon2.matches("secret", rehashed));
+        assertFalse(argon2.upgradeEncoding(rehashed));
+    }
+
+    @Test
+    void testCalibrationStaysWithinBounds() {
+        int strength = calibrator.bcryptStrength();
+        assertTrue(strength >= 10 && strength <= 16);
+    }
+
+    @Test
+    void testUnknownAlgorithmIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> calibrator.createEncoder("md5", 0));
+    }
+}
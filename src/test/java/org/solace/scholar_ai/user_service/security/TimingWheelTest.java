@@ -0,0 +1,130 @@
+package org.solace.scholar_ai.user_service.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Not started, so the test drives time with advance()
+        wheel = new TimingWheel(1000, meterRegistry);
+    }
+
+    @Test
+    void testExpiresAtDeadline() {
+        AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(Duration.ofSeconds(5), fired::incrementAndGet);
+
+        wheel.advance(4);
+        assertEquals(0, fired.get());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(1);
+        assertEquals(1, fired.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDelayIsRoundedUpToWholeTicks() {
+        AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(Duration.ofMillis(1500), fired::incrementAndGet);
+        wheel.schedule(Duration.ZERO, fired::incrementAndGet);
+
+        wheel.advance(1);
+        assertEquals(1, fired.get());
+        wheel.advance(1);
+        assertEquals(2, fired.get());
+    }
+
+    @Test
+    void testCancelPreventsExpiry() {
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheel.Timeout timeout = wheel.schedule(Duration.ofSeconds(3), fired::incrementAndGet);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, wheel.size());
+
+        wheel.advance(10);
+        assertEquals(0, fired.get());
+    }
+
+    @Test
+    void testCancelAfterExpiryReturnsFalse() {
+        TimingWheel.Timeout timeout = wheel.schedule(Duration.ofSeconds(1), () -> {});
+        wheel.advance(1);
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void testEntriesCascadeFromHigherLevelsOnTime() {
+        long[] delays = {63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 300_000, 16_777_215, 16_777_216, 20_000_000};
+        List<Long> firedAt = new ArrayList<>();
+        long[] now = {0};
+        for (long delay : delays) {
+            wheel.schedule(Duration.ofSeconds(delay), () -> firedAt.add(now[0]));
+        }
+
+        for (long delay : delays) {
+            wheel.advance(delay - 1 - now[0]);
+            now[0] = delay;
+            int before = firedAt.size();
+            wheel.advance(1);
+            assertEquals(before + 1, firedAt.size(), "Entry due at tick " + delay);
+            assertEquals(delay, firedAt.get(firedAt.size() - 1));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testRandomScheduleFiresEachEntryExactlyOnceAtItsTick() {
+        Random random = new Random(42);
+        int count = 5_000;
+        long[] deadlines = new long[count];
+        long[] firedAt = new long[count];
+        long[] now = {0};
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            deadlines[i] = 1 + random.nextInt(20_000);
+            firedAt[i] = -1;
+            wheel.schedule(Duration.ofSeconds(deadlines[i]), () -> {
+                assertEquals(-1, firedAt[index], "Entry fired twice");
+                firedAt[index] = now[0];
+            });
+        }
+
+        for (long tick = 1; tick <= 20_000; tick++) {
+            now[0] = tick;
+            wheel.advance(1);
+        }
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(deadlines[i], firedAt[i]);
+        }
+        assertEquals(
+                count,
+                meterRegistry.get("security.timing_wheel.expired").counter().count());
+    }
+
+    @Test
+    void testLiveEntriesGauge() {
+        wheel.schedule(Duration.ofSeconds(10), () -> {});
+        wheel.schedule(Duration.ofSeconds(20), () -> {});
+
+        assertEquals(
+                2, meterRegistry.get("security.timing_wheel.entries").gauge().value());
+    }
+}
@@ -0,0 +1,127 @@
+package org.solace.scholar_ai.user_service.service.user;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.user_service.dto.user.UserProfileDTO;
+import org.solace.scholar_ai.user_service.dto.user.UserProfileResponseDTO;
+import org.solace.scholar_ai.user_service.exception.CustomException;
+import org.solace.scholar_ai.user_service.model.User;
+import org.solace.scholar_ai.user_service.model.UserProfile;
+import org.solace.scholar_ai.user_service.model.UserRole;
+import org.solace.scholar_ai.user_service.repository.ProfileVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest(
+        properties = {
+            "spring.flyway.enabled=false",
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.generate_statistics=true"
+        })
+@ActiveProfiles("test")
+@Import(UserProfileService.class)
+class UserProfileServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    private Statistics statistics;
+    private UUID userId;
+    private UUID profileId;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        User user = new User();
+        user.setEmail("editor@example.com");
+        user.setEncryptedPassword("hash");
+        user.setRole(UserRole.USER);
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+
+        UserProfile profile = new UserProfile();
+        profile.setUser(user);
+        profile.setFullName("Ada Editor");
+        profile.setBio("Works on type systems");
+        user.setProfile(profile);
+
+        userId = entityManager.persist(user).getId();
+        profileId = profile.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testUnchangedUpdateWritesNothing() {
+        UserProfileDTO update = new UserProfileDTO();
+        update.setFullName("Ada Editor");
+        update.setBio("Works on type systems");
+
+        UserProfileResponseDTO result =
+                userProfileService.updateProfile(userId, update, new ProfileVersion(profileId, 0L, null));
+
+        assertEquals(0L, result.getVersion());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testChangedUpdateBumpsVersion() {
+        UserProfileDTO update = new UserProfileDTO();
+        update.setFullName("Ada Lovelace");
+
+        UserProfileResponseDTO result =
+                userProfileService.updateProfile(userId, update, new ProfileVersion(profileId, 0L, null));
+
+        assertEquals("Ada Lovelace", result.getFullName());
+        assertEquals("Works on type systems", result.getBio());
+        assertEquals(1L, result.getVersion());
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testStaleVersionIsRejected() {
+        UserProfileDTO update = new UserProfileDTO();
+        update.setFullName("Ada Lovelace");
+
+        CustomException e = assertThrows(
+                CustomException.class,
+                () -> userProfileService.updateProfile(userId, update, new ProfileVersion(profileId, 3L, null)));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatus());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void testAnotherProfilesTagIsRejected() {
+        UserProfileDTO update = new UserProfileDTO();
+        update.setFullName("Ada Lovelace");
+
+        CustomException e = assertThrows(
+                CustomException.class,
+                () -> userProfileService.updateProfile(
+                        userId, update, new ProfileVersion(UUID.randomUUID(), 0L, null)));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatus());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+}
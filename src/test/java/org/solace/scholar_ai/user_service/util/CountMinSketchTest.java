@@ -0,0 +1,67 @@
+package org.solace.scholar_ai.user_service.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    @Test
+    void testEstimatesNeverUndercountAndStayWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(512, 4);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // Skewed like failed logins: a few hot accounts and a long tail
+            String key = random.nextInt(10) == 0
+                    ? "hot-" + random.nextInt(5) + "@example.com"
+                    : "user-" + random.nextInt(20_000) + "@example.com";
+            sketch.add(key, 1);
+            exact.merge(key, 1L, Long::sum);
+            total++;
+        }
+
+        double bound = Math.E / sketch.width() * total;
+        int overBound = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), "Undercounted " + entry.getKey());
+            if (estimate - entry.getValue() > bound) {
+                overBound++;
+            }
+        }
+        // Each key exceeds the bound with probability at most exp(-depth), about 1.8%
+        assertTrue(overBound <= exact.size() * Math.exp(-sketch.depth()) * 1.5, overBound + " keys over the bound");
+    }
+
+    @Test
+    void testAddReturnsTheNewEstimate() {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+
+        assertEquals(3, sketch.add("a", 3));
+        assertEquals(5, sketch.add("a", 2));
+        assertEquals(5, sketch.estimate("a"));
+        assertEquals(0, sketch.estimate("never-added"));
+    }
+
+    @Test
+    void testHalveAgesCounts() {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        sketch.add("a", 9);
+
+        sketch.halve();
+
+        assertEquals(4, sketch.estimate("a"));
+    }
+
+    @Test
+    void testWidthIsRoundedUpToAPowerOfTwo() {
+        assertEquals(128, new CountMinSketch(100, 2).width());
+        assertEquals(64, new CountMinSketch(64, 2).width());
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 2));
+    }
+}
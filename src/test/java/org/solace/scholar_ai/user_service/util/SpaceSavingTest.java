@@ -0,0 +1,83 @@
+package org.solace.scholar_ai.user_service.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingTest {
+
+    @Test
+    void testHeavyHittersSurviveASprayOfDistinctKeys() {
+        SpaceSaving summary = new SpaceSaving(16);
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 50_000; i++) {
+            String key = "sprayed-" + i + "@example.com";
+            summary.offer(key, 1);
+            sketch.add(key, 1);
+            if (i % 10 == 0) {
+                summary.offer("victim@example.com", 1);
+                sketch.add("victim@example.com", 1);
+            }
+        }
+
+        List<SpaceSaving.Entry> top = summary.top(1);
+        assertEquals("victim@example.com", top.get(0).key());
+        assertTrue(top.get(0).count() >= 5_000);
+        assertTrue(top.get(0).count() - top.get(0).error() <= 5_000);
+        assertTrue(sketch.estimate("victim@example.com") >= 5_000);
+        assertTrue(summary.top(100).size() <= 16);
+    }
+
+    @Test
+    void testCountsAreExactWhileWithinCapacity() {
+        SpaceSaving summary = new SpaceSaving(4);
+        summary.offer("a", 3);
+        summary.offer("b", 1);
+        summary.offer("a", 2);
+
+        assertEquals(new SpaceSaving.Entry("a", 5, 0), summary.get("a"));
+        assertEquals(new SpaceSaving.Entry("b", 1, 0), summary.get("b"));
+        assertNull(summary.get("c"));
+    }
+
+    @Test
+    void testEvictedCountIsCarriedAsError() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.offer("a", 5);
+        summary.offer("b", 2);
+        summary.offer("c", 1);
+
+        assertNull(summary.get("b"));
+        assertEquals(new SpaceSaving.Entry("c", 3, 2), summary.get("c"));
+    }
+
+    @Test
+    void testHalveAgesCountsAndDropsEmptyEntries() {
+        SpaceSaving summary = new SpaceSaving(4);
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+        summary.offer("a", 8);
+        summary.offer("b", 1);
+        sketch.add("a", 8);
+
+        summary.halve();
+        sketch.halve();
+
+        assertEquals(4, summary.get("a").count());
+        assertNull(summary.get("b"));
+        assertEquals(4, sketch.estimate("a"));
+    }
+
+    @Test
+    void testSketchNeverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(256, 4);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add("key-" + (i % 100), 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 10);
+        }
+        assertEquals(256, sketch.width());
+        assertEquals(256, new CountMinSketch(200, 1).width());
+    }
+}